@@ -8,10 +8,12 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing  						//* enables the automatic tracking of certain fields
 @EnableAsync								//* enables Asynchronous  operations (sending email)
+@EnableScheduling							//* enables scheduled jobs (rating reconciliation)
 public class BookNetworkApiApplication {
 
 	public static void main(String[] args) {
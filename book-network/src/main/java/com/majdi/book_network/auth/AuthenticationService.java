@@ -118,7 +118,9 @@ public class AuthenticationService {
         //! Generating the jwt Token
         var claims = new HashMap<String, Object>();
         var user = (User) auth.getPrincipal();
-        claims.put("fullName", user.getFullName());
+        if (!jwtService.isCompactClaims()) {
+            claims.put("fullName", user.getFullName());        //! display only, left out of the compact profile
+        }
         var jwtToken = jwtService.generateToken(claims, user);
 
         //! Sending authentication Response
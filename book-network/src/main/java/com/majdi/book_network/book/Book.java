@@ -0,0 +1,54 @@
+package com.majdi.book_network.book;
+
+import com.majdi.book_network.history.BookTransactionHistory;
+import com.majdi.book_network.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder                                                //* makes it easier to create instances of the class in a readable way
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_book_owner", columnList = "owner_id, id"))
+@EntityListeners(AuditingEntityListener.class)          //* enable automatic auditing of an entity’s creation and modification timestamps
+public class Book {
+
+    @Id
+    @GeneratedValue
+    private Integer id;
+    private String title;
+    private String authorName;
+    private String isbn;
+    private String synopsis;
+    private String bookCover;                           //* relative path of the cover, served by /files
+    private boolean archived;
+    private boolean shareable;
+    //! set by the single conditional UPDATE that claims the book for a borrower, cleared when the owner approves the return
+    private boolean borrowed;
+
+    @Version                                            //* optimistic locking: concurrent updates of the same book fail instead of overwriting each other
+    private Integer version;
+
+    @ManyToOne
+    @JoinColumn(name = "owner_id")
+    private User owner;
+
+    @OneToMany(mappedBy = "book")
+    private List<BookTransactionHistory> histories;
+
+    @CreatedDate                                        //* automatically sets the field to the current date when a new entity is created and saved for the first time
+    @Column(nullable = false, updatable = false)        //* not null and not updatable after the initial insertion
+    private LocalDateTime createdDate;
+    @LastModifiedDate                                   //* automatically updates the field with the current date
+    @Column(insertable = false)                         //* prevents the field from being populated when a new record is inserted. Instead, it is only populated on update
+    private LocalDateTime lastModifiedDate;
+
+}
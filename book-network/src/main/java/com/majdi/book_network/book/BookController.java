@@ -0,0 +1,148 @@
+package com.majdi.book_network.book;
+
+import com.majdi.book_network.common.CursorPageResponse;
+import com.majdi.book_network.user.User;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("books")
+@RequiredArgsConstructor
+@Tag(name = "Book")
+public class BookController {
+
+    private final BookService service;
+    private final ListingVersions listingVersions;
+
+    //? Save a Book owned by the connected user
+    @PostMapping
+    public ResponseEntity<Integer> saveBook(
+            @RequestBody @Valid BookRequest request,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.save(request, connectedUser));
+    }
+
+    //? Catalog of the shareable Books of the other users
+    @GetMapping
+    public ResponseEntity<CursorPageResponse<BookSummaryResponse>> findAllBooks(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false)
+            @Min(value = 1, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE)
+            @Max(value = CursorPageResponse.MAX_PAGE_SIZE, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE) int size,
+            @RequestParam(name = "withTotal", defaultValue = "false", required = false) boolean withTotal,
+            Authentication connectedUser,
+            WebRequest request
+    ) {
+        //! unchanged listing: 304 without touching the database
+        User user = (User) connectedUser.getPrincipal();
+        if (request.checkNotModified(listingVersions.catalogEtag(user.getId(), cursor, size, withTotal))) {
+            return null;
+        }
+        return listing(service.findAllBooks(cursor, size, withTotal, connectedUser));
+    }
+
+    //? Books of the connected user
+    @GetMapping("/owner")
+    public ResponseEntity<CursorPageResponse<BookSummaryResponse>> findAllBooksByOwner(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false)
+            @Min(value = 1, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE)
+            @Max(value = CursorPageResponse.MAX_PAGE_SIZE, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE) int size,
+            @RequestParam(name = "withTotal", defaultValue = "false", required = false) boolean withTotal,
+            Authentication connectedUser,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(userEtag("owner", cursor, size, withTotal, connectedUser))) {
+            return null;
+        }
+        return listing(service.findAllBooksByOwner(cursor, size, withTotal, connectedUser));
+    }
+
+    //? Books borrowed by the connected user
+    @GetMapping("/borrowed")
+    public ResponseEntity<CursorPageResponse<BorrowedBookResponse>> findAllBorrowedBooks(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false)
+            @Min(value = 1, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE)
+            @Max(value = CursorPageResponse.MAX_PAGE_SIZE, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE) int size,
+            @RequestParam(name = "withTotal", defaultValue = "false", required = false) boolean withTotal,
+            Authentication connectedUser,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(userEtag("borrowed", cursor, size, withTotal, connectedUser))) {
+            return null;
+        }
+        return listing(service.findAllBorrowedBooks(cursor, size, withTotal, connectedUser));
+    }
+
+    //? Books returned to the connected user
+    @GetMapping("/returned")
+    public ResponseEntity<CursorPageResponse<BorrowedBookResponse>> findAllReturnedBooks(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "10", required = false)
+            @Min(value = 1, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE)
+            @Max(value = CursorPageResponse.MAX_PAGE_SIZE, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE) int size,
+            @RequestParam(name = "withTotal", defaultValue = "false", required = false) boolean withTotal,
+            Authentication connectedUser,
+            WebRequest request
+    ) {
+        if (request.checkNotModified(userEtag("returned", cursor, size, withTotal, connectedUser))) {
+            return null;
+        }
+        return listing(service.findAllReturnedBooks(cursor, size, withTotal, connectedUser));
+    }
+
+    //? Find a Book
+    @GetMapping("/{book-id}")
+    public ResponseEntity<BookResponse> findBookById(@PathVariable("book-id") Integer bookId) {
+        return ResponseEntity.ok(service.findById(bookId));
+    }
+
+    //? Borrow a Book
+    @PostMapping("/borrow/{book-id}")
+    public ResponseEntity<Integer> borrowBook(
+            @PathVariable("book-id") Integer bookId,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.borrowBook(bookId, connectedUser));
+    }
+
+    //? Return a borrowed Book
+    @PatchMapping("/borrow/return/{book-id}")
+    public ResponseEntity<Integer> returnBorrowedBook(
+            @PathVariable("book-id") Integer bookId,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.returnBorrowedBook(bookId, connectedUser));
+    }
+
+    //? Approve the return of a Book
+    @PatchMapping("/borrow/return/approve/{book-id}")
+    public ResponseEntity<Integer> approveReturnBorrowedBook(
+            @PathVariable("book-id") Integer bookId,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.approveReturnBorrowedBook(bookId, connectedUser));
+    }
+
+    private String userEtag(String list, String cursor, int size, boolean withTotal, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        return listingVersions.userEtag(list, user.getId(), cursor, size, withTotal);
+    }
+
+    //! the ETag header is already set by checkNotModified, clients must revalidate every time
+    private static <T> ResponseEntity<T> listing(T body) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
+    }
+}
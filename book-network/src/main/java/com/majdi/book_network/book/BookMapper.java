@@ -0,0 +1,38 @@
+package com.majdi.book_network.book;
+
+import com.majdi.book_network.feedback.BookRating;
+import org.springframework.stereotype.Service;
+
+@Service
+public class BookMapper {
+
+    //! never takes an id from the client: saving always creates a new book owned by the connected user
+    public Book toBook(BookRequest request) {
+        return Book.builder()
+                .title(request.getTitle())
+                .authorName(request.getAuthorName())
+                .isbn(request.getIsbn())
+                .synopsis(request.getSynopsis())
+                .archived(false)
+                .shareable(request.isShareable())
+                .build();
+    }
+
+    //! the rating is read from the precomputed aggregate, null when the book has no feedback yet
+    public BookResponse toBookResponse(Book book, BookRating rating) {
+        return BookResponse.builder()
+                .id(book.getId())
+                .title(book.getTitle())
+                .authorName(book.getAuthorName())
+                .isbn(book.getIsbn())
+                .synopsis(book.getSynopsis())
+                .owner(book.getOwner().getFullName())
+                .bookCover(book.getBookCover())
+                .archived(book.isArchived())
+                .shareable(book.isShareable())
+                .borrowed(book.isBorrowed())
+                .rate(rating == null ? 0.0 : rating.getAverage())
+                .rateCount(rating == null ? 0 : rating.getRatingCount())
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.majdi.book_network.book;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BookRepository extends JpaRepository<Book, Integer> {
+
+    //! keyset pagination: the cursor is the last id of the previous page, rows come straight out as DTOs
+    @Query("""
+            SELECT new com.majdi.book_network.book.BookSummaryResponse(
+                book.id, book.title, book.authorName, book.isbn,
+                CONCAT(owner.firstName, ' ', owner.lastName), book.bookCover,
+                book.archived, book.shareable, book.borrowed,
+                rating.ratingSum, rating.ratingCount
+            )
+            FROM Book book
+            JOIN book.owner owner
+            LEFT JOIN BookRating rating ON rating.bookId = book.id
+            WHERE book.archived = false
+            AND book.shareable = true
+            AND owner.id <> :userId
+            AND book.id < :cursor
+            ORDER BY book.id DESC
+            """)
+    List<BookSummaryResponse> findDisplayableBooks(@Param("userId") Integer userId, @Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("""
+            SELECT COUNT(book)
+            FROM Book book
+            WHERE book.archived = false
+            AND book.shareable = true
+            AND book.owner.id <> :userId
+            """)
+    long countDisplayableBooks(@Param("userId") Integer userId);
+
+    //! same rules as the catalog, for a known set of ids (recommendations)
+    @Query("""
+            SELECT book
+            FROM Book book
+            JOIN FETCH book.owner owner
+            WHERE book.id IN :bookIds
+            AND book.archived = false
+            AND book.shareable = true
+            AND owner.id <> :userId
+            """)
+    List<Book> findDisplayableByIds(@Param("bookIds") Collection<Integer> bookIds, @Param("userId") Integer userId);
+
+    @Query("""
+            SELECT new com.majdi.book_network.book.BookSummaryResponse(
+                book.id, book.title, book.authorName, book.isbn,
+                CONCAT(owner.firstName, ' ', owner.lastName), book.bookCover,
+                book.archived, book.shareable, book.borrowed,
+                rating.ratingSum, rating.ratingCount
+            )
+            FROM Book book
+            JOIN book.owner owner
+            LEFT JOIN BookRating rating ON rating.bookId = book.id
+            WHERE owner.id = :userId
+            AND book.id < :cursor
+            ORDER BY book.id DESC
+            """)
+    List<BookSummaryResponse> findOwnerBooks(@Param("userId") Integer userId, @Param("cursor") Integer cursor, Pageable pageable);
+
+    long countByOwnerId(Integer ownerId);
+
+    @Query("SELECT MAX(book.id) FROM Book book")
+    Integer findMaxId();
+
+    //! claim the book in a single statement: only one of many concurrent borrowers gets 1 updated row
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Book book
+            SET book.borrowed = true, book.version = book.version + 1
+            WHERE book.id = :bookId
+            AND book.borrowed = false
+            AND book.shareable = true
+            AND book.archived = false
+            AND book.owner.id <> :userId
+            """)
+    int claimForBorrow(@Param("bookId") Integer bookId, @Param("userId") Integer userId);
+
+    //! make the book available again once its return has been approved
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Book book
+            SET book.borrowed = false, book.version = book.version + 1
+            WHERE book.id = :bookId
+            AND book.borrowed = true
+            """)
+    int release(@Param("bookId") Integer bookId);
+}
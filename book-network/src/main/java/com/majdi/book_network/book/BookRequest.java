@@ -0,0 +1,20 @@
+package com.majdi.book_network.book;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookRequest {
+    @NotBlank(message = "Title cannot be empty")
+    private String title;
+    @NotBlank(message = "Author name cannot be empty")
+    private String authorName;
+    @NotBlank(message = "ISBN cannot be empty")
+    private String isbn;
+    private String synopsis;
+    private boolean shareable;
+}
@@ -0,0 +1,23 @@
+package com.majdi.book_network.book;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookResponse {
+    private Integer id;
+    private String title;
+    private String authorName;
+    private String isbn;
+    private String synopsis;
+    private String owner;
+    private String bookCover;
+    private boolean archived;
+    private boolean shareable;
+    private boolean borrowed;
+    private double rate;
+    private long rateCount;
+}
@@ -0,0 +1,199 @@
+package com.majdi.book_network.book;
+
+import com.majdi.book_network.common.OptimisticRetryExecutor;
+import com.majdi.book_network.common.CursorPageResponse;
+import com.majdi.book_network.event.BookActivityEvent;
+import com.majdi.book_network.event.BookActivityType;
+import com.majdi.book_network.exception.OperationNotPermittedException;
+import com.majdi.book_network.feedback.BookRating;
+import com.majdi.book_network.feedback.BookRatingRepository;
+import com.majdi.book_network.history.BookTransactionHistory;
+import com.majdi.book_network.history.BookTransactionHistoryRepository;
+import com.majdi.book_network.user.User;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+//? Defining book sharing services: saving books and the borrow / return / return approval workflow
+@Service
+@RequiredArgsConstructor
+public class BookService {
+
+    private final BookRepository bookRepository;
+    private final BookTransactionHistoryRepository transactionHistoryRepository;
+    private final BookRatingRepository bookRatingRepository;
+    private final BookMapper bookMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingVersions listingVersions;
+
+    public Integer save(BookRequest request, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        Book book = bookMapper.toBook(request);
+        book.setOwner(user);
+        var saved = bookRepository.save(book);
+        listingVersions.touchUser(user.getId());
+        if (saved.isShareable()) {
+            eventPublisher.publishEvent(new BookActivityEvent(user.getId(), BookActivityType.SHARED, saved.getId(), null, null));
+        }
+        return saved.getId();
+    }
+
+    public BookResponse findById(Integer bookId) {
+        return bookRepository.findById(bookId)
+                .map(book -> bookMapper.toBookResponse(book, bookRatingRepository.findById(bookId).orElse(null)))
+                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + bookId));
+    }
+
+    //? Catalog of the books shared by the other users
+    public CursorPageResponse<BookSummaryResponse> findAllBooks(String cursor, int size, boolean withTotal, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        var books = bookRepository.findDisplayableBooks(user.getId(), decodeCursor(cursor), PageRequest.ofSize(size + 1));
+        return toCursorPage(books, size, BookSummaryResponse::getId,
+                withTotal ? bookRepository.countDisplayableBooks(user.getId()) : null);
+    }
+
+    //? Books owned by the connected user
+    public CursorPageResponse<BookSummaryResponse> findAllBooksByOwner(String cursor, int size, boolean withTotal, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        var books = bookRepository.findOwnerBooks(user.getId(), decodeCursor(cursor), PageRequest.ofSize(size + 1));
+        return toCursorPage(books, size, BookSummaryResponse::getId,
+                withTotal ? bookRepository.countByOwnerId(user.getId()) : null);
+    }
+
+    //? Borrows of the connected user
+    public CursorPageResponse<BorrowedBookResponse> findAllBorrowedBooks(String cursor, int size, boolean withTotal, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        var books = transactionHistoryRepository.findBorrowedBooks(user.getId(), decodeCursor(cursor), PageRequest.ofSize(size + 1));
+        return toCursorPage(books, size, BorrowedBookResponse::getHistoryId,
+                withTotal ? transactionHistoryRepository.countByUserId(user.getId()) : null);
+    }
+
+    //? Books returned to the connected user
+    public CursorPageResponse<BorrowedBookResponse> findAllReturnedBooks(String cursor, int size, boolean withTotal, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        var books = transactionHistoryRepository.findReturnedBooks(user.getId(), decodeCursor(cursor), PageRequest.ofSize(size + 1));
+        return toCursorPage(books, size, BorrowedBookResponse::getHistoryId,
+                withTotal ? transactionHistoryRepository.countReturnedBooks(user.getId()) : null);
+    }
+
+    //? The first limit books of the given ids, in the same order, that the connected user may borrow (the catalog rules)
+    public List<BookResponse> findDisplayableByIds(List<Integer> bookIds, int limit, Authentication connectedUser) {
+        if (bookIds.isEmpty()) {
+            return List.of();
+        }
+        User user = (User) connectedUser.getPrincipal();
+        Map<Integer, Book> books = bookRepository.findDisplayableByIds(bookIds, user.getId())
+                .stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        List<Integer> displayedIds = bookIds.stream()
+                .filter(books::containsKey)
+                .limit(limit)
+                .toList();
+        Map<Integer, BookRating> ratings = findRatings(displayedIds);
+        return displayedIds.stream()
+                .map(bookId -> bookMapper.toBookResponse(books.get(bookId), ratings.get(bookId)))
+                .toList();
+    }
+
+    //? Borrow a book: many users may race for the same book, exactly one of them wins the claim
+    public Integer borrowBook(Integer bookId, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        return retryExecutor.execute(() -> transactionTemplate.execute(status -> {
+            //! no read-then-write: the conditional UPDATE is the only check that matters under contention
+            if (bookRepository.claimForBorrow(bookId, user.getId()) == 0) {
+                throw borrowRefusal(bookId, user);
+            }
+            var book = bookRepository.getReferenceById(bookId);
+            var history = BookTransactionHistory.builder()
+                    .user(user)
+                    .book(book)
+                    .returned(false)
+                    .returnApproved(false)
+                    .build();
+            transactionHistoryRepository.save(history);
+            eventPublisher.publishEvent(new BookActivityEvent(user.getId(), BookActivityType.BORROWED, bookId, book.getOwner().getId(), history.getId()));
+            return history.getId();
+        }));
+    }
+
+    //? Return a borrowed book, the owner still has to approve the return
+    public Integer returnBorrowedBook(Integer bookId, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        return retryExecutor.execute(() -> transactionTemplate.execute(status -> {
+            var history = transactionHistoryRepository.findActiveBorrow(bookId, user.getId())
+                    .orElseThrow(() -> new OperationNotPermittedException("You did not borrow this book"));
+            history.setReturned(true);
+            transactionHistoryRepository.save(history);
+            eventPublisher.publishEvent(new BookActivityEvent(user.getId(), BookActivityType.RETURNED, bookId, history.getBook().getOwner().getId(), history.getId()));
+            return history.getId();
+        }));
+    }
+
+    //? Approve the return of a book: closes the borrow and makes the book available again
+    public Integer approveReturnBorrowedBook(Integer bookId, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        return retryExecutor.execute(() -> transactionTemplate.execute(status -> {
+            var history = transactionHistoryRepository.findPendingReturn(bookId, user.getId())
+                    .orElseThrow(() -> new OperationNotPermittedException("The book is not returned yet or you are not its owner"));
+            history.setReturnApproved(true);
+            transactionHistoryRepository.saveAndFlush(history);
+            bookRepository.release(bookId);
+            eventPublisher.publishEvent(new BookActivityEvent(user.getId(), BookActivityType.RETURN_APPROVED, bookId, history.getUser().getId(), history.getId()));
+            return history.getId();
+        }));
+    }
+
+    //! no cursor means the first page: every id is below Integer.MAX_VALUE
+    private static Integer decodeCursor(String cursor) {
+        try {
+            return cursor == null || cursor.isBlank() ? Integer.MAX_VALUE : Integer.parseInt(cursor);
+        } catch (NumberFormatException e) {
+            throw new OperationNotPermittedException("Invalid cursor");
+        }
+    }
+
+    //! the queries read one row more than the page size, to know if there is a next page without counting
+    private static <T> CursorPageResponse<T> toCursorPage(List<T> rows, int size, Function<T, Integer> idOf, Long totalElements) {
+        boolean hasNext = size > 0 && rows.size() > size;
+        List<T> content = rows.size() > size ? rows.subList(0, size) : rows;
+        return CursorPageResponse.<T>builder()
+                .content(content)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? String.valueOf(idOf.apply(content.get(content.size() - 1))) : null)
+                .totalElements(totalElements)
+                .build();
+    }
+
+    private Map<Integer, BookRating> findRatings(List<Integer> bookIds) {
+        return bookRatingRepository.findAllById(bookIds)
+                .stream()
+                .collect(Collectors.toMap(BookRating::getBookId, Function.identity()));
+    }
+
+    //! only runs after a lost claim, to tell the user why
+    private RuntimeException borrowRefusal(Integer bookId, User user) {
+        var book = bookRepository.findById(bookId).orElse(null);
+        if (book == null) {
+            return new EntityNotFoundException("No book found with ID:: " + bookId);
+        }
+        if (book.isArchived() || !book.isShareable()) {
+            return new OperationNotPermittedException("The requested book cannot be borrowed since it is archived or not shareable");
+        }
+        if (Objects.equals(book.getOwner().getId(), user.getId())) {
+            return new OperationNotPermittedException("You cannot borrow your own book");
+        }
+        return new OperationNotPermittedException("The requested book is already borrowed");
+    }
+}
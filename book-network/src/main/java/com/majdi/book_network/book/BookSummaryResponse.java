@@ -0,0 +1,41 @@
+package com.majdi.book_network.book;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//? Listing row, built by the JPQL query itself: no entity is hydrated for the listings
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookSummaryResponse {
+    private Integer id;
+    private String title;
+    private String authorName;
+    private String isbn;
+    private String owner;
+    private String bookCover;
+    private boolean archived;
+    private boolean shareable;
+    private boolean borrowed;
+    private double rate;
+    private long rateCount;
+
+    //! constructor used by the JPQL projections, the rating columns are null for a book without feedback
+    public BookSummaryResponse(
+            Integer id, String title, String authorName, String isbn, String owner, String bookCover,
+            boolean archived, boolean shareable, boolean borrowed, Long ratingSum, Long ratingCount
+    ) {
+        this.id = id;
+        this.title = title;
+        this.authorName = authorName;
+        this.isbn = isbn;
+        this.owner = owner;
+        this.bookCover = bookCover;
+        this.archived = archived;
+        this.shareable = shareable;
+        this.borrowed = borrowed;
+        this.rate = ratingCount == null || ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount;
+        this.rateCount = ratingCount == null ? 0 : ratingCount;
+    }
+}
@@ -0,0 +1,35 @@
+package com.majdi.book_network.book;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+//? Listing row of a borrow (my borrowed books, books returned to me), built by the JPQL query itself
+@Getter
+@Setter
+@NoArgsConstructor
+public class BorrowedBookResponse {
+    private Integer historyId;
+    private Integer bookId;
+    private String title;
+    private String authorName;
+    private String isbn;
+    private double rate;
+    private boolean returned;
+    private boolean returnApproved;
+
+    //! constructor used by the JPQL projections, the rating columns are null for a book without feedback
+    public BorrowedBookResponse(
+            Integer historyId, Integer bookId, String title, String authorName, String isbn,
+            Long ratingSum, Long ratingCount, boolean returned, boolean returnApproved
+    ) {
+        this.historyId = historyId;
+        this.bookId = bookId;
+        this.title = title;
+        this.authorName = authorName;
+        this.isbn = isbn;
+        this.rate = ratingCount == null || ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount;
+        this.returned = returned;
+        this.returnApproved = returnApproved;
+    }
+}
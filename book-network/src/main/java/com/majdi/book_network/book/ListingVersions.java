@@ -0,0 +1,71 @@
+package com.majdi.book_network.book;
+
+import com.majdi.book_network.event.BookActivityEvent;
+import com.majdi.book_network.event.BookActivityType;
+import com.majdi.book_network.history.BookTransactionHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+//? Change versions of the book listings, so that an unchanged page is answered with a 304 before any query.
+//! in memory: the boot id makes every ETag issued by a previous run (or another instance) stale
+@Component
+@RequiredArgsConstructor
+public class ListingVersions {
+
+    private final BookTransactionHistoryRepository transactionHistoryRepository;
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicLong ratingsVersion = new AtomicLong();                //* part of every ETag, every list shows ratings
+    private final Map<Integer, Long> userVersions = new ConcurrentHashMap<>();
+
+    //? A book or a borrow of the user changed
+    public void touchUser(Integer userId) {
+        if (userId != null) {
+            userVersions.merge(userId, 1L, Long::sum);
+        }
+    }
+
+    //? Something shown in the catalog of shareable books changed
+    public void touchCatalog() {
+        catalogVersion.incrementAndGet();
+    }
+
+    //? Ratings of unknown books changed (reconciliation): every listing is stale
+    public void touchRatings() {
+        ratingsVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookActivity(BookActivityEvent event) {
+        touchUser(event.actorId());
+        touchUser(event.recipientId());
+        //! a return only changes the lists of the borrower and the owner until it is approved
+        if (event.type() != BookActivityType.RETURNED) {
+            touchCatalog();
+        }
+        //! the new rating is also shown in the borrowed lists of every other reader of the book
+        if (event.type() == BookActivityType.REVIEWED) {
+            transactionHistoryRepository.findBorrowerIds(event.bookId()).forEach(this::touchUser);
+        }
+    }
+
+    //! the catalog hides the caller's own books: the user id is part of the ETag, so that a shared browser cache never answers another account
+    public String catalogEtag(Integer userId, String cursor, int size, boolean withTotal) {
+        return etag("catalog", userId, catalogVersion.get(), cursor, size, withTotal);
+    }
+
+    public String userEtag(String list, Integer userId, String cursor, int size, boolean withTotal) {
+        return etag(list, userId, userVersions.getOrDefault(userId, 0L), cursor, size, withTotal);
+    }
+
+    private String etag(String list, Integer userId, long version, String cursor, int size, boolean withTotal) {
+        return "W/\"" + bootId + "-" + ratingsVersion.get() + "-" + list + "-" + userId + "-" + version
+                + "-" + cursor + "-" + size + (withTotal ? "-t" : "") + "\"";
+    }
+}
@@ -0,0 +1,21 @@
+package com.majdi.book_network.common;
+
+import lombok.*;
+
+import java.util.List;
+
+//? A page of a keyset paginated list: pass nextCursor back to read the following page
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageResponse<T> {
+
+    public static final int MAX_PAGE_SIZE = 100;        //* upper bound of the size parameter of every keyset paginated endpoint
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+    private Long totalElements;                         //* only computed when asked for, null otherwise
+}
@@ -0,0 +1,52 @@
+package com.majdi.book_network.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+//? Re-runs a short transaction when it lost an optimistic lock / lock acquisition race, with bounded attempts and jittered backoff
+@Component
+public class OptimisticRetryExecutor {
+
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetryExecutor(
+            @Value("${application.concurrency.retry.max-attempts}") int maxAttempts,
+            @Value("${application.concurrency.retry.base-backoff-ms}") long baseBackoffMs,
+            @Value("${application.concurrency.retry.max-backoff-ms}") long maxBackoffMs
+    ) {
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    //! the action must open its own transaction, so that every attempt starts from fresh state
+    public <T> T execute(Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    //! "full jitter": sleep a random time up to the exponential cap so that the losers do not collide again
+    private void backoff(int attempt, ConcurrencyFailureException cause) {
+        long cap = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+}
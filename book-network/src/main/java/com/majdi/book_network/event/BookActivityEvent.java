@@ -0,0 +1,11 @@
+package com.majdi.book_network.event;
+
+//? In-process event published by the book services once something happened to a book
+public record BookActivityEvent(
+        Integer actorId,                                //* the user who did the action
+        BookActivityType type,
+        Integer bookId,
+        Integer recipientId,                            //* the other user concerned by the action (owner, borrower), null for none
+        Integer historyId                               //* the borrow history row of the borrow / return workflow, null for the other actions
+) {
+}
@@ -0,0 +1,10 @@
+package com.majdi.book_network.event;
+
+//! persisted by ordinal in the feed tables: only append new values at the end
+public enum BookActivityType {
+    SHARED,
+    BORROWED,
+    RETURNED,
+    RETURN_APPROVED,
+    REVIEWED
+}
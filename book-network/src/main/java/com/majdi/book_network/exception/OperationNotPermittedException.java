@@ -0,0 +1,12 @@
+package com.majdi.book_network.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class OperationNotPermittedException extends RuntimeException {
+
+    public OperationNotPermittedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,51 @@
+package com.majdi.book_network.feed;
+
+import com.majdi.book_network.common.CursorPageResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("feed")
+@RequiredArgsConstructor
+@Tag(name = "Feed")
+public class FeedController {
+
+    private final FeedService service;
+
+    //? Activity of the users followed by the connected user, newest first
+    @GetMapping
+    public ResponseEntity<CursorPageResponse<FeedItemResponse>> findFeed(
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "20", required = false)
+            @Min(value = 1, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE)
+            @Max(value = CursorPageResponse.MAX_PAGE_SIZE, message = "Size must be between 1 and " + CursorPageResponse.MAX_PAGE_SIZE) int size,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.findFeed(cursor, size, connectedUser));
+    }
+
+    //? Follow a User
+    @PostMapping("/follow/{user-id}")
+    public ResponseEntity<?> follow(
+            @PathVariable("user-id") Integer userId,
+            Authentication connectedUser
+    ) {
+        service.follow(userId, connectedUser);
+        return ResponseEntity.ok().build();
+    }
+
+    //? Unfollow a User
+    @DeleteMapping("/follow/{user-id}")
+    public ResponseEntity<?> unfollow(
+            @PathVariable("user-id") Integer userId,
+            Authentication connectedUser
+    ) {
+        service.unfollow(userId, connectedUser);
+        return ResponseEntity.ok().build();
+    }
+}
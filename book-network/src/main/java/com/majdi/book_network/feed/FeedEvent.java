@@ -0,0 +1,35 @@
+package com.majdi.book_network.feed;
+
+import com.majdi.book_network.event.BookActivityType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+//? Compact row of an activity shown in the feeds: only ids, the names are joined when a page is read
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "feed_event", indexes = @Index(name = "idx_feed_event_actor", columnList = "actor_id, id"))
+@EntityListeners(AuditingEntityListener.class)
+public class FeedEvent {
+
+    @Id
+    @GeneratedValue
+    private Long id;                                    //* increasing, used as the feed cursor
+    private Integer actorId;
+    @Enumerated(EnumType.ORDINAL)
+    private BookActivityType type;
+    private Integer bookId;
+    //! false for the events of high-follower accounts: not copied into the timelines, merged when the feed is read
+    private boolean fannedOut;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,40 @@
+package com.majdi.book_network.feed;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface FeedEventRepository extends JpaRepository<FeedEvent, Long> {
+
+    @Query("SELECT DISTINCT event.actorId FROM FeedEvent event WHERE event.fannedOut = false")
+    List<Integer> findPullActorIds();
+
+    //! fan-out on read: the events of followed high-follower accounts older than the cursor
+    @Query("""
+            SELECT event.id
+            FROM FeedEvent event
+            WHERE event.actorId IN :actorIds
+            AND event.fannedOut = false
+            AND event.id < :cursor
+            ORDER BY event.id DESC
+            """)
+    List<Long> findPulledEventIds(@Param("actorIds") Collection<Integer> actorIds, @Param("cursor") Long cursor, Pageable pageable);
+
+    @Query("""
+            SELECT new com.majdi.book_network.feed.FeedItemResponse(
+                event.id, event.type, event.createdAt,
+                actor.id, CONCAT(actor.firstName, ' ', actor.lastName),
+                book.id, book.title
+            )
+            FROM FeedEvent event
+            JOIN User actor ON actor.id = event.actorId
+            JOIN Book book ON book.id = event.bookId
+            WHERE event.id IN :ids
+            ORDER BY event.id DESC
+            """)
+    List<FeedItemResponse> findItems(@Param("ids") Collection<Long> ids);
+}
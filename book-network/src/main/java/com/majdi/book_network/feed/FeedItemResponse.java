@@ -0,0 +1,20 @@
+package com.majdi.book_network.feed;
+
+import com.majdi.book_network.event.BookActivityType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedItemResponse {
+    private Long eventId;
+    private BookActivityType type;
+    private LocalDateTime createdAt;
+    private Integer actorId;
+    private String actorName;
+    private Integer bookId;
+    private String bookTitle;
+}
@@ -0,0 +1,179 @@
+package com.majdi.book_network.feed;
+
+import com.majdi.book_network.common.CursorPageResponse;
+import com.majdi.book_network.event.BookActivityEvent;
+import com.majdi.book_network.event.BookActivityType;
+import com.majdi.book_network.exception.OperationNotPermittedException;
+import com.majdi.book_network.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//? "My network" feed: fan-out on write for most users, fan-out on read for high-follower accounts
+@Service
+@RequiredArgsConstructor
+public class FeedService {
+
+    private final UserFollowRepository userFollowRepository;
+    private final FeedEventRepository feedEventRepository;
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final TimelineCache timelineCache;
+    private final TransactionTemplate transactionTemplate;
+    @Value("${application.feed.fan-out-threshold}")
+    private long fanOutThreshold;
+
+    //! actors having events that were not fanned out, their followers pull them when reading the feed
+    private final Set<Integer> pullActorIds = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPullActors() {
+        pullActorIds.addAll(feedEventRepository.findPullActorIds());
+    }
+
+    //? Record the activity once its transaction committed, off the request thread
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookActivity(BookActivityEvent event) {
+        if (event.type() == BookActivityType.RETURN_APPROVED) {
+            return;
+        }
+        Integer actorId = event.actorId();
+        //! a known pull actor needs no count at all, the others are counted up to the threshold only
+        boolean fanOut = !pullActorIds.contains(actorId)
+                && userFollowRepository.countFollowersUpTo(actorId, fanOutThreshold + 1) <= fanOutThreshold;
+
+        var feedEvent = transactionTemplate.execute(status -> {
+            var saved = feedEventRepository.save(FeedEvent.builder()
+                    .actorId(actorId)
+                    .type(event.type())
+                    .bookId(event.bookId())
+                    .fannedOut(fanOut)
+                    .build());
+            if (fanOut) {
+                timelineEntryRepository.fanOut(saved.getId(), actorId);
+            }
+            return saved;
+        });
+
+        if (fanOut) {
+            for (Integer followerId : userFollowRepository.findFollowerIds(actorId)) {
+                timelineCache.push(followerId, feedEvent.getId());
+            }
+        } else {
+            pullActorIds.add(actorId);
+        }
+    }
+
+    public void follow(Integer followeeId, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        if (Objects.equals(user.getId(), followeeId)) {
+            throw new OperationNotPermittedException("You cannot follow yourself");
+        }
+        userFollowRepository.save(UserFollow.builder()
+                .id(new UserFollowId(followeeId, user.getId()))
+                .build());
+    }
+
+    public void unfollow(Integer followeeId, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        transactionTemplate.executeWithoutResult(status -> {
+            userFollowRepository.deleteById(new UserFollowId(followeeId, user.getId()));
+            timelineEntryRepository.deleteActorEntries(user.getId(), followeeId);
+        });
+        timelineCache.invalidate(user.getId());
+    }
+
+    //? A page of the feed, newest first. cursor is the nextCursor of the previous page
+    public CursorPageResponse<FeedItemResponse> findFeed(String cursor, int size, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        long before = decodeCursor(cursor);
+        int limit = size + 1;                           //* one more id tells if there is a next page
+
+        long[] merged = merge(readTimeline(user.getId(), before, limit), readPulledEvents(user.getId(), before, limit));
+        boolean hasNext = merged.length > size;
+        List<Long> ids = new ArrayList<>(Math.min(size, merged.length));
+        for (int i = 0; i < merged.length && i < size; i++) {
+            ids.add(merged[i]);
+        }
+
+        return CursorPageResponse.<FeedItemResponse>builder()
+                .content(ids.isEmpty() ? List.of() : feedEventRepository.findItems(ids))
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? String.valueOf(ids.get(ids.size() - 1)) : null)
+                .build();
+    }
+
+    //! no cursor means the first page: every event id is below Long.MAX_VALUE
+    private static long decodeCursor(String cursor) {
+        try {
+            return cursor == null || cursor.isBlank() ? Long.MAX_VALUE : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new OperationNotPermittedException("Invalid cursor");
+        }
+    }
+
+    private long[] readTimeline(Integer userId, long before, int limit) {
+        LongRingBuffer buffer = timelineCache.get(userId);
+        if (buffer == null && before == Long.MAX_VALUE) {
+            //! first page of a cold timeline: warm the cache with its newest ids
+            buffer = timelineCache.register(userId);
+            int capacity = timelineCache.capacity();
+            List<Long> newest = timelineEntryRepository.findEventIds(userId, Long.MAX_VALUE, capacity);
+            buffer.load(toArray(newest), newest.size() < capacity);
+        }
+        if (buffer != null) {
+            long[] ids = buffer.readBefore(before, limit);
+            if (ids != null) {
+                return ids;
+            }
+        }
+        return toArray(timelineEntryRepository.findEventIds(userId, before, limit));
+    }
+
+    private long[] readPulledEvents(Integer userId, long before, int limit) {
+        if (pullActorIds.isEmpty()) {
+            return new long[0];
+        }
+        List<Integer> followedActors = userFollowRepository.findFolloweesAmong(userId, pullActorIds);
+        if (followedActors.isEmpty()) {
+            return new long[0];
+        }
+        return toArray(feedEventRepository.findPulledEventIds(followedActors, before, PageRequest.ofSize(limit)));
+    }
+
+    //! both arrays are sorted newest first, an id present in both (actor crossed the threshold) is kept once
+    private static long[] merge(long[] pushed, long[] pulled) {
+        long[] merged = new long[pushed.length + pulled.length];
+        int i = 0, j = 0, k = 0;
+        while (i < pushed.length || j < pulled.length) {
+            long next;
+            if (j == pulled.length || (i < pushed.length && pushed[i] >= pulled[j])) {
+                next = pushed[i++];
+            } else {
+                next = pulled[j++];
+            }
+            if (k == 0 || merged[k - 1] != next) {
+                merged[k++] = next;
+            }
+        }
+        return k == merged.length ? merged : Arrays.copyOf(merged, k);
+    }
+
+    private static long[] toArray(List<Long> ids) {
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+}
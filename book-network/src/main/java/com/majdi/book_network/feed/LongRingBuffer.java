@@ -0,0 +1,80 @@
+package com.majdi.book_network.feed;
+
+//? The newest event ids of one timeline, newest first, in a fixed primitive array (no boxing, no resizing)
+public class LongRingBuffer {
+
+    private final long[] ids;
+    private int head;                                   //* physical index of the newest id
+    private int size;
+    private boolean complete;                           //* true when the buffer holds the whole timeline, not only its newest part
+    private boolean ready;                              //* false while the timeline is being loaded from the database
+
+    public LongRingBuffer(int capacity) {
+        this.ids = new long[capacity];
+    }
+
+    //? Insert an id at its place (almost always the head), ignoring duplicates and dropping the oldest id when full
+    public synchronized void add(long id) {
+        int position = 0;
+        while (position < size && get(position) > id) {
+            position++;
+        }
+        if (position < size && get(position) == id) {
+            return;
+        }
+        if (position == ids.length) {
+            return;                                     //* older than everything kept by a full buffer
+        }
+        if (size == ids.length) {
+            complete = false;                           //* the oldest id is dropped below
+        } else {
+            size++;
+        }
+        if (position == 0) {
+            head = Math.floorMod(head - 1, ids.length);
+            ids[head] = id;
+            return;
+        }
+        for (int i = size - 1; i > position; i--) {
+            set(i, get(i - 1));
+        }
+        set(position, id);
+    }
+
+    //? Merge the newest ids read from the database, pushes received meanwhile are kept
+    public synchronized void load(long[] newestIds, boolean wholeTimeline) {
+        for (long id : newestIds) {
+            add(id);
+        }
+        complete = wholeTimeline && size < ids.length;
+        ready = true;
+    }
+
+    //? Up to limit ids older than the cursor, or null when the buffer cannot answer without the database
+    public synchronized long[] readBefore(long cursor, int limit) {
+        if (!ready) {
+            return null;
+        }
+        int position = 0;
+        while (position < size && get(position) >= cursor) {
+            position++;
+        }
+        int available = Math.min(limit, size - position);
+        if (available < limit && !complete) {
+            return null;
+        }
+        long[] page = new long[available];
+        for (int i = 0; i < available; i++) {
+            page[i] = get(position + i);
+        }
+        return page;
+    }
+
+    private long get(int logicalIndex) {
+        return ids[(head + logicalIndex) % ids.length];
+    }
+
+    private void set(int logicalIndex, long id) {
+        ids[(head + logicalIndex) % ids.length] = id;
+    }
+}
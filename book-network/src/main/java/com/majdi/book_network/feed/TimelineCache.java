@@ -0,0 +1,53 @@
+package com.majdi.book_network.feed;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//? Hot timelines kept in memory: a bounded number of users, the least recently used one is evicted
+@Component
+public class TimelineCache {
+
+    private final int capacity;
+    private final Map<Integer, LongRingBuffer> timelines;
+
+    public TimelineCache(
+            @Value("${application.feed.timeline-cache.max-users}") int maxUsers,
+            @Value("${application.feed.timeline-cache.capacity}") int capacity
+    ) {
+        this.capacity = capacity;
+        this.timelines = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, LongRingBuffer> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized LongRingBuffer get(int userId) {
+        return timelines.get(userId);
+    }
+
+    //? Register an empty, not yet ready, buffer: pushes are collected while the timeline is loaded
+    public synchronized LongRingBuffer register(int userId) {
+        return timelines.computeIfAbsent(userId, id -> new LongRingBuffer(capacity));
+    }
+
+    //! only timelines already in memory are updated, the others are read from the database when needed
+    public void push(int userId, long eventId) {
+        LongRingBuffer buffer = get(userId);
+        if (buffer != null) {
+            buffer.add(eventId);
+        }
+    }
+
+    public synchronized void invalidate(int userId) {
+        timelines.remove(userId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.majdi.book_network.feed;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+//? One event copied into the timeline of a follower (fan-out on write): two ids per row, nothing else
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "timeline_entry", indexes = @Index(name = "idx_timeline_entry_user", columnList = "user_id, event_id"))
+public class TimelineEntry {
+
+    @EmbeddedId
+    private TimelineEntryId id;
+}
@@ -0,0 +1,17 @@
+package com.majdi.book_network.feed;
+
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+
+@Getter
+@Setter
+@EqualsAndHashCode
+@AllArgsConstructor
+@NoArgsConstructor
+@Embeddable
+public class TimelineEntryId implements Serializable {
+    private Integer userId;
+    private Long eventId;
+}
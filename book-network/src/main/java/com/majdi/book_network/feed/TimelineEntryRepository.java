@@ -0,0 +1,42 @@
+package com.majdi.book_network.feed;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, TimelineEntryId> {
+
+    //! fan-out on write in one statement, whatever the number of followers
+    @Modifying
+    @Query(value = """
+            INSERT INTO timeline_entry (user_id, event_id)
+            SELECT follow.follower_id, :eventId
+            FROM user_follow follow
+            WHERE follow.followee_id = :actorId
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int fanOut(@Param("eventId") Long eventId, @Param("actorId") Integer actorId);
+
+    @Query(value = """
+            SELECT entry.event_id
+            FROM timeline_entry entry
+            WHERE entry.user_id = :userId
+            AND entry.event_id < :cursor
+            ORDER BY entry.event_id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findEventIds(@Param("userId") Integer userId, @Param("cursor") Long cursor, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM timeline_entry entry
+            USING feed_event event
+            WHERE entry.user_id = :userId
+            AND entry.event_id = event.id
+            AND event.actor_id = :actorId
+            """, nativeQuery = true)
+    int deleteActorEntries(@Param("userId") Integer userId, @Param("actorId") Integer actorId);
+}
@@ -0,0 +1,27 @@
+package com.majdi.book_network.feed;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+//? A user following another user's activity. Primary key (followee_id, follower_id) serves the fan-out
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_follow", indexes = @Index(name = "idx_user_follow_follower", columnList = "follower_id, followee_id"))
+@EntityListeners(AuditingEntityListener.class)
+public class UserFollow {
+
+    @EmbeddedId
+    private UserFollowId id;
+
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,29 @@
+package com.majdi.book_network.feed;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserFollowRepository extends JpaRepository<UserFollow, UserFollowId> {
+
+    //! stops counting past the limit: high-follower accounts must not scan all their followers on every event
+    @Query(value = """
+            SELECT COUNT(*)
+            FROM (SELECT 1 FROM user_follow WHERE followee_id = :followeeId LIMIT :limit) follows
+            """, nativeQuery = true)
+    long countFollowersUpTo(@Param("followeeId") Integer followeeId, @Param("limit") long limit);
+
+    @Query("SELECT follow.id.followerId FROM UserFollow follow WHERE follow.id.followeeId = :followeeId")
+    List<Integer> findFollowerIds(@Param("followeeId") Integer followeeId);
+
+    @Query("""
+            SELECT follow.id.followeeId
+            FROM UserFollow follow
+            WHERE follow.id.followerId = :followerId
+            AND follow.id.followeeId IN :candidateIds
+            """)
+    List<Integer> findFolloweesAmong(@Param("followerId") Integer followerId, @Param("candidateIds") Collection<Integer> candidateIds);
+}
@@ -0,0 +1,32 @@
+package com.majdi.book_network.feedback;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+//? Precomputed rating of a book: maintained by every feedback write, so catalog pages never run AVG() over the feedback table
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "book_rating")
+public class BookRating {
+
+    @Id
+    private Integer bookId;                             //* same id as the rated book, one row per book
+    private long ratingSum;
+    private long ratingCount;
+    //! histogram of the notes
+    private long oneStar;
+    private long twoStars;
+    private long threeStars;
+    private long fourStars;
+    private long fiveStars;
+
+    public double getAverage() {
+        return ratingCount == 0 ? 0.0 : (double) ratingSum / ratingCount;
+    }
+}
@@ -0,0 +1,75 @@
+package com.majdi.book_network.feedback;
+
+import com.majdi.book_network.book.BookRepository;
+import com.majdi.book_network.book.ListingVersions;
+import com.majdi.book_network.common.OptimisticRetryExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+//? Periodically corrects drift between book_rating and the feedback rows (manual fixes, bugs, restored backups...)
+@Slf4j
+@Component
+public class BookRatingReconciliationJob {
+
+    private final BookRatingRepository bookRatingRepository;
+    private final BookRepository bookRepository;
+    private final ListingVersions listingVersions;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public BookRatingReconciliationJob(
+            BookRatingRepository bookRatingRepository,
+            BookRepository bookRepository,
+            ListingVersions listingVersions,
+            OptimisticRetryExecutor retryExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${application.feedback.reconciliation.batch-size}") int batchSize
+    ) {
+        this.bookRatingRepository = bookRatingRepository;
+        this.bookRepository = bookRepository;
+        this.listingVersions = listingVersions;
+        this.retryExecutor = retryExecutor;
+        this.batchSize = batchSize;
+        //! REPEATABLE READ: a feedback committed while a batch is recomputed makes the batch fail and retry instead of being overwritten
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Scheduled(cron = "${application.feedback.reconciliation.cron}")
+    public void reconcile() {
+        Integer maxBookId = bookRepository.findMaxId();
+        if (maxBookId == null) {
+            return;
+        }
+        int corrected = 0;
+        int failedBatches = 0;
+        //! small book id ranges keep every transaction short
+        for (int from = 0; from <= maxBookId; from += batchSize) {
+            int fromBookId = from;
+            int toBookId = from + batchSize - 1;
+            //! a batch that stays busy after every retry is skipped until the next run, it must not stop the remaining batches
+            try {
+                corrected += retryExecutor.execute(() -> transactionTemplate.execute(
+                        status -> bookRatingRepository.reconcile(fromBookId, toBookId)
+                                + bookRatingRepository.deleteOrphans(fromBookId, toBookId)
+                ));
+            } catch (RuntimeException e) {
+                failedBatches++;
+                log.error("Book rating reconciliation failed for books {} to {}", fromBookId, toBookId, e);
+            }
+        }
+        if (corrected > 0) {
+            listingVersions.touchRatings();
+            log.warn("Book rating reconciliation corrected {} drifted aggregates", corrected);
+        }
+        if (failedBatches > 0) {
+            log.warn("Book rating reconciliation skipped {} batches, they will be retried on the next run", failedBatches);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.majdi.book_network.feedback;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface BookRatingRepository extends JpaRepository<BookRating, Integer> {
+
+    //! atomic increment in the feedback transaction, creating the row on the first feedback of the book
+    @Modifying
+    @Query(value = """
+            INSERT INTO book_rating (book_id, rating_sum, rating_count, one_star, two_stars, three_stars, four_stars, five_stars)
+            VALUES (:bookId, :note, 1,
+                    CASE WHEN :note = 1 THEN 1 ELSE 0 END,
+                    CASE WHEN :note = 2 THEN 1 ELSE 0 END,
+                    CASE WHEN :note = 3 THEN 1 ELSE 0 END,
+                    CASE WHEN :note = 4 THEN 1 ELSE 0 END,
+                    CASE WHEN :note = 5 THEN 1 ELSE 0 END)
+            ON CONFLICT (book_id) DO UPDATE SET
+                rating_sum = book_rating.rating_sum + EXCLUDED.rating_sum,
+                rating_count = book_rating.rating_count + 1,
+                one_star = book_rating.one_star + EXCLUDED.one_star,
+                two_stars = book_rating.two_stars + EXCLUDED.two_stars,
+                three_stars = book_rating.three_stars + EXCLUDED.three_stars,
+                four_stars = book_rating.four_stars + EXCLUDED.four_stars,
+                five_stars = book_rating.five_stars + EXCLUDED.five_stars
+            """, nativeQuery = true)
+    void increment(@Param("bookId") Integer bookId, @Param("note") Integer note);
+
+    //! recompute the aggregates of a range of books from the feedback rows, only rewriting the rows that drifted
+    @Modifying
+    @Query(value = """
+            INSERT INTO book_rating (book_id, rating_sum, rating_count, one_star, two_stars, three_stars, four_stars, five_stars)
+            SELECT f.book_id, SUM(f.note), COUNT(*),
+                   COUNT(*) FILTER (WHERE f.note = 1),
+                   COUNT(*) FILTER (WHERE f.note = 2),
+                   COUNT(*) FILTER (WHERE f.note = 3),
+                   COUNT(*) FILTER (WHERE f.note = 4),
+                   COUNT(*) FILTER (WHERE f.note = 5)
+            FROM feedback f
+            WHERE f.book_id BETWEEN :fromBookId AND :toBookId
+            GROUP BY f.book_id
+            ON CONFLICT (book_id) DO UPDATE SET
+                rating_sum = EXCLUDED.rating_sum,
+                rating_count = EXCLUDED.rating_count,
+                one_star = EXCLUDED.one_star,
+                two_stars = EXCLUDED.two_stars,
+                three_stars = EXCLUDED.three_stars,
+                four_stars = EXCLUDED.four_stars,
+                five_stars = EXCLUDED.five_stars
+            WHERE (book_rating.rating_sum, book_rating.rating_count, book_rating.one_star, book_rating.two_stars,
+                   book_rating.three_stars, book_rating.four_stars, book_rating.five_stars)
+                  IS DISTINCT FROM
+                  (EXCLUDED.rating_sum, EXCLUDED.rating_count, EXCLUDED.one_star, EXCLUDED.two_stars,
+                   EXCLUDED.three_stars, EXCLUDED.four_stars, EXCLUDED.five_stars)
+            """, nativeQuery = true)
+    int reconcile(@Param("fromBookId") Integer fromBookId, @Param("toBookId") Integer toBookId);
+
+    //! the upsert above never sees books whose feedback rows were all deleted: their aggregate must go as well
+    @Modifying
+    @Query(value = """
+            DELETE FROM book_rating
+            WHERE book_rating.book_id BETWEEN :fromBookId AND :toBookId
+            AND NOT EXISTS (SELECT 1 FROM feedback f WHERE f.book_id = book_rating.book_id)
+            """, nativeQuery = true)
+    int deleteOrphans(@Param("fromBookId") Integer fromBookId, @Param("toBookId") Integer toBookId);
+}
@@ -0,0 +1,15 @@
+package com.majdi.book_network.feedback;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookRatingResponse {
+    private Integer bookId;
+    private double average;
+    private long count;
+    private long[] histogram;                           //* number of 1 to 5 star notes
+}
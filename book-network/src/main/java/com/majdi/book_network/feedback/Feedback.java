@@ -0,0 +1,40 @@
+package com.majdi.book_network.feedback;
+
+import com.majdi.book_network.book.Book;
+import com.majdi.book_network.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder                                                //* makes it easier to create instances of the class in a readable way
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_feedback_book", columnList = "book_id"))
+@EntityListeners(AuditingEntityListener.class)          //* enable automatic auditing of an entity’s creation timestamp
+public class Feedback {
+
+    @Id
+    @GeneratedValue
+    private Integer id;
+    private Integer note;                               //* number of stars, from 1 to 5
+    private String comment;
+
+    @ManyToOne
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    @ManyToOne
+    @JoinColumn(name = "author_id", nullable = false)
+    private User author;
+
+    @CreatedDate                                        //* automatically sets the field to the current date when a new entity is created and saved for the first time
+    @Column(nullable = false, updatable = false)        //* not null and not updatable after the initial insertion
+    private LocalDateTime createdDate;
+
+}
@@ -0,0 +1,32 @@
+package com.majdi.book_network.feedback;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("feedbacks")
+@RequiredArgsConstructor
+@Tag(name = "Feedback")
+public class FeedbackController {
+
+    private final FeedbackService service;
+
+    //? Give a feedback to a Book
+    @PostMapping
+    public ResponseEntity<Integer> saveFeedback(
+            @RequestBody @Valid FeedbackRequest request,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.save(request, connectedUser));
+    }
+
+    //? Rating of a Book (average, count and histogram)
+    @GetMapping("/book/{book-id}/rating")
+    public ResponseEntity<BookRatingResponse> findBookRating(@PathVariable("book-id") Integer bookId) {
+        return ResponseEntity.ok(service.findRating(bookId));
+    }
+}
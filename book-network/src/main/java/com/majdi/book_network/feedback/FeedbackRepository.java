@@ -0,0 +1,6 @@
+package com.majdi.book_network.feedback;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface FeedbackRepository extends JpaRepository<Feedback, Integer> {
+}
@@ -0,0 +1,21 @@
+package com.majdi.book_network.feedback;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class FeedbackRequest {
+    @NotNull(message = "Note cannot be empty")
+    @Min(value = 1, message = "Note must be between 1 and 5")
+    @Max(value = 5, message = "Note must be between 1 and 5")
+    private Integer note;
+    private String comment;
+    @NotNull(message = "Book cannot be empty")
+    private Integer bookId;
+}
@@ -0,0 +1,69 @@
+package com.majdi.book_network.feedback;
+
+import com.majdi.book_network.book.BookRepository;
+import com.majdi.book_network.event.BookActivityEvent;
+import com.majdi.book_network.event.BookActivityType;
+import com.majdi.book_network.exception.OperationNotPermittedException;
+import com.majdi.book_network.user.User;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+//? Defining book feedback services, every feedback also updates the precomputed rating of its book
+@Service
+@RequiredArgsConstructor
+public class FeedbackService {
+
+    private final FeedbackRepository feedbackRepository;
+    private final BookRatingRepository bookRatingRepository;
+    private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public Integer save(FeedbackRequest request, Authentication connectedUser) {
+        User user = (User) connectedUser.getPrincipal();
+        var book = bookRepository.findById(request.getBookId())
+                .orElseThrow(() -> new EntityNotFoundException("No book found with ID:: " + request.getBookId()));
+        if (book.isArchived() || !book.isShareable()) {
+            throw new OperationNotPermittedException("You cannot give a feedback for an archived or not shareable book");
+        }
+        if (Objects.equals(book.getOwner().getId(), user.getId())) {
+            throw new OperationNotPermittedException("You cannot give a feedback to your own book");
+        }
+
+        var feedback = Feedback.builder()
+                .note(request.getNote())
+                .comment(request.getComment())
+                .book(book)
+                .author(user)
+                .build();
+        feedbackRepository.save(feedback);
+
+        //! same transaction: the aggregate can never count a feedback that was rolled back
+        bookRatingRepository.increment(book.getId(), request.getNote());
+        eventPublisher.publishEvent(new BookActivityEvent(user.getId(), BookActivityType.REVIEWED, book.getId(), book.getOwner().getId(), null));
+        return feedback.getId();
+    }
+
+    public BookRatingResponse findRating(Integer bookId) {
+        var rating = bookRatingRepository.findById(bookId)
+                .orElseGet(() -> BookRating.builder().bookId(bookId).build());
+        return BookRatingResponse.builder()
+                .bookId(bookId)
+                .average(rating.getAverage())
+                .count(rating.getRatingCount())
+                .histogram(new long[]{
+                        rating.getOneStar(),
+                        rating.getTwoStars(),
+                        rating.getThreeStars(),
+                        rating.getFourStars(),
+                        rating.getFiveStars()
+                })
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.majdi.book_network.file;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Optional;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+//? Resolving stored files from the uploads folder and computing their content based ETag
+@Service
+@RequiredArgsConstructor
+public class FileStorageService {
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final HotFileCache hotFileCache;
+    @Value("${application.file.uploads.output-path}")
+    private String outputPath;
+    @Value("${application.file.uploads.hot-cache.max-entry-bytes}")
+    private long maxHotEntryBytes;
+
+    public Optional<StoredFile> findFile(String relativePath) {
+        Path root = Path.of(outputPath).toAbsolutePath().normalize();
+        Path path = root.resolve(stripLeadingSlashes(relativePath)).normalize();
+
+        //! refuse anything escaping the uploads folder (../../etc/passwd)
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+
+            StoredFile cached = hotFileCache.get(path, size, lastModified);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+
+            StoredFile file = size <= maxHotEntryBytes
+                    ? loadSmallFile(path, size, lastModified)
+                    : hashLargeFile(path, size, lastModified);
+            hotFileCache.put(file);
+            return Optional.of(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read stored file " + relativePath, e);
+        }
+    }
+
+    //? Small files are read once, hashed and kept in the hot cache for the containers without sendfile
+    private StoredFile loadSmallFile(Path path, long size, long lastModified) throws IOException {
+        byte[] content = Files.readAllBytes(path);
+        MessageDigest digest = newDigest();
+        digest.update(content);
+        return new StoredFile(path, content.length, lastModified, toEtag(digest), content);
+    }
+
+    //? Large files are streamed through a direct buffer, only the ETag is cached
+    private StoredFile hashLargeFile(Path path, long size, long lastModified) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return new StoredFile(path, size, lastModified, toEtag(digest), null);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    //! strong ETag: quoted, derived from the content hash only
+    private static String toEtag(MessageDigest digest) {
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()) + "\"";
+    }
+
+    private static String stripLeadingSlashes(String relativePath) {
+        int start = 0;
+        while (start < relativePath.length() && relativePath.charAt(start) == '/') {
+            start++;
+        }
+        return relativePath.substring(start);
+    }
+}
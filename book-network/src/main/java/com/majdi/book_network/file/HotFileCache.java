@@ -0,0 +1,66 @@
+package com.majdi.book_network.file;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//? Small LRU cache sitting in front of the disk: keeps the metadata (ETag) of every served file and the bytes of small hot files
+@Component
+public class HotFileCache {
+
+    //! rough per-entry overhead, so that metadata-only entries still count against the budget
+    private static final long ENTRY_OVERHEAD = 128;
+
+    private final long maxBytes;
+    private final Map<Path, StoredFile> entries = new LinkedHashMap<>(64, 0.75f, true);      //* access-order: iteration starts with the least recently used
+    private long currentBytes;
+
+    public HotFileCache(@Value("${application.file.uploads.hot-cache.max-bytes}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    //? Return the cached entry only if the file did not change on disk since it was cached
+    public synchronized StoredFile get(Path path, long size, long lastModified) {
+        StoredFile cached = entries.get(path);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.size() != size || cached.lastModified() != lastModified) {
+            remove(path);
+            return null;
+        }
+        return cached;
+    }
+
+    public synchronized void put(StoredFile file) {
+        long weight = weightOf(file);
+        if (weight > maxBytes) {
+            return;
+        }
+        remove(file.path());
+        entries.put(file.path(), file);
+        currentBytes += weight;
+
+        //! size-based eviction of the least recently used entries
+        Iterator<StoredFile> iterator = entries.values().iterator();
+        while (currentBytes > maxBytes && iterator.hasNext()) {
+            currentBytes -= weightOf(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private void remove(Path path) {
+        StoredFile previous = entries.remove(path);
+        if (previous != null) {
+            currentBytes -= weightOf(previous);
+        }
+    }
+
+    private static long weightOf(StoredFile file) {
+        return ENTRY_OVERHEAD + (file.isInMemory() ? file.content().length : 0);
+    }
+}
@@ -0,0 +1,17 @@
+package com.majdi.book_network.file;
+
+import java.nio.file.Path;
+
+//? Metadata of a stored file (covers, attachments). content is only set for small files kept in the hot cache
+public record StoredFile(
+        Path path,
+        long size,
+        long lastModified,
+        String etag,
+        byte[] content
+) {
+
+    public boolean isInMemory() {
+        return content != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.majdi.book_network.history;
+
+import com.majdi.book_network.book.Book;
+import com.majdi.book_network.user.User;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+//? One borrow of a book by a user: active until the owner approves its return
+@Getter
+@Setter
+@Builder                                                //* makes it easier to create instances of the class in a readable way
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "book_transaction_history", indexes = {
+        @Index(name = "idx_book_transaction_history_user", columnList = "user_id, id"),
+        @Index(name = "idx_book_transaction_history_book", columnList = "book_id, id")
+})
+@EntityListeners(AuditingEntityListener.class)          //* enable automatic auditing of an entity’s creation and modification timestamps
+public class BookTransactionHistory {
+
+    @Id
+    @GeneratedValue
+    private Integer id;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne
+    @JoinColumn(name = "book_id", nullable = false)
+    private Book book;
+
+    private boolean returned;
+    private boolean returnApproved;
+
+    @Version                                            //* optimistic locking: a return racing with its approval fails instead of overwriting
+    private Integer version;
+
+    @CreatedDate                                        //* automatically sets the field to the current date when a new entity is created and saved for the first time
+    @Column(nullable = false, updatable = false)        //* not null and not updatable after the initial insertion
+    private LocalDateTime createdDate;
+    @LastModifiedDate                                   //* automatically updates the field with the current date
+    @Column(insertable = false)                         //* prevents the field from being populated when a new record is inserted. Instead, it is only populated on update
+    private LocalDateTime lastModifiedDate;
+
+}
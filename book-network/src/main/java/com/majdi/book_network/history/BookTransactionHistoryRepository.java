@@ -0,0 +1,89 @@
+package com.majdi.book_network.history;
+
+import com.majdi.book_network.book.BorrowedBookResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BookTransactionHistoryRepository extends JpaRepository<BookTransactionHistory, Integer> {
+
+    @Query("""
+            SELECT history
+            FROM BookTransactionHistory history
+            WHERE history.book.id = :bookId
+            AND history.user.id = :userId
+            AND history.returned = false
+            AND history.returnApproved = false
+            """)
+    Optional<BookTransactionHistory> findActiveBorrow(@Param("bookId") Integer bookId, @Param("userId") Integer userId);
+
+    @Query("""
+            SELECT history
+            FROM BookTransactionHistory history
+            WHERE history.book.id = :bookId
+            AND history.book.owner.id = :ownerId
+            AND history.returned = true
+            AND history.returnApproved = false
+            """)
+    Optional<BookTransactionHistory> findPendingReturn(@Param("bookId") Integer bookId, @Param("ownerId") Integer ownerId);
+
+    //! bounded by the history id: what the reader had borrowed before this borrow, whatever they borrowed since
+    boolean existsByUserIdAndBookIdAndIdLessThan(Integer userId, Integer bookId, Integer historyId);
+
+    @Query("""
+            SELECT DISTINCT history.book.id
+            FROM BookTransactionHistory history
+            WHERE history.user.id = :userId
+            AND history.id < :historyId
+            """)
+    List<Integer> findBorrowedBookIdsBefore(@Param("userId") Integer userId, @Param("historyId") Integer historyId);
+
+    @Query("SELECT DISTINCT history.user.id FROM BookTransactionHistory history WHERE history.book.id = :bookId")
+    List<Integer> findBorrowerIds(@Param("bookId") Integer bookId);
+
+    //! keyset pagination on the history id, rows come straight out as DTOs
+    @Query("""
+            SELECT new com.majdi.book_network.book.BorrowedBookResponse(
+                history.id, book.id, book.title, book.authorName, book.isbn,
+                rating.ratingSum, rating.ratingCount,
+                history.returned, history.returnApproved
+            )
+            FROM BookTransactionHistory history
+            JOIN history.book book
+            LEFT JOIN BookRating rating ON rating.bookId = book.id
+            WHERE history.user.id = :userId
+            AND history.id < :cursor
+            ORDER BY history.id DESC
+            """)
+    List<BorrowedBookResponse> findBorrowedBooks(@Param("userId") Integer userId, @Param("cursor") Integer cursor, Pageable pageable);
+
+    long countByUserId(Integer userId);
+
+    @Query("""
+            SELECT new com.majdi.book_network.book.BorrowedBookResponse(
+                history.id, book.id, book.title, book.authorName, book.isbn,
+                rating.ratingSum, rating.ratingCount,
+                history.returned, history.returnApproved
+            )
+            FROM BookTransactionHistory history
+            JOIN history.book book
+            LEFT JOIN BookRating rating ON rating.bookId = book.id
+            WHERE book.owner.id = :userId
+            AND history.returned = true
+            AND history.id < :cursor
+            ORDER BY history.id DESC
+            """)
+    List<BorrowedBookResponse> findReturnedBooks(@Param("userId") Integer userId, @Param("cursor") Integer cursor, Pageable pageable);
+
+    @Query("""
+            SELECT COUNT(history)
+            FROM BookTransactionHistory history
+            WHERE history.book.owner.id = :userId
+            AND history.returned = true
+            """)
+    long countReturnedBooks(@Param("userId") Integer userId);
+}
@@ -0,0 +1,19 @@
+package com.majdi.book_network.notification;
+
+import com.majdi.book_network.event.BookActivityType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Notification {
+    private BookActivityType type;
+    private Integer bookId;
+    private Integer actorId;
+    private String message;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.majdi.book_network.notification;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+@RestController
+@RequestMapping("notifications")
+@RequiredArgsConstructor
+@Tag(name = "Notification")
+public class NotificationController {
+
+    private final NotificationService service;
+
+    //? Stream of the connected user's notifications (Server-Sent Events).
+    //! EventSource cannot send headers, so the JWT may also be given as the token query parameter
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(name = "token", required = false) String token,
+            @RequestHeader(name = AUTHORIZATION, required = false) String authHeader
+    ) {
+        if (token == null && authHeader != null && authHeader.startsWith("Bearer ")) {
+            token = authHeader.substring(7);
+        }
+        return service.subscribe(token == null ? "" : token);
+    }
+}
@@ -0,0 +1,151 @@
+package com.majdi.book_network.notification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//? Keeps the open SSE streams and writes the notifications to them without ever blocking the publisher
+@Slf4j
+@Component
+public class NotificationHub {
+
+    private final Map<Integer, Set<SseConnection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor();
+    private final long timeoutMs;
+    private final int bufferSize;
+    private final Counter deliveredEvents;
+    private final Counter droppedEvents;
+    private final Counter evictedConnections;
+
+    public NotificationHub(
+            MeterRegistry meterRegistry,
+            @Value("${application.notification.sse.timeout-ms}") long timeoutMs,
+            @Value("${application.notification.sse.heartbeat-interval-ms}") long heartbeatIntervalMs,
+            @Value("${application.notification.sse.buffer-size}") int bufferSize
+    ) {
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = bufferSize;
+        Gauge.builder("notifications.sse.connections", openConnections, AtomicInteger::get)
+                .description("Open notification streams")
+                .register(meterRegistry);
+        this.deliveredEvents = meterRegistry.counter("notifications.sse.events.delivered");
+        this.droppedEvents = meterRegistry.counter("notifications.sse.events.dropped");
+        this.evictedConnections = meterRegistry.counter("notifications.sse.connections.evicted");
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter open(Integer userId) {
+        var emitter = new SseEmitter(timeoutMs);
+        register(userId, emitter);
+        return emitter;
+    }
+
+    void register(Integer userId, SseEmitter emitter) {
+        var connection = new SseConnection(userId, emitter, bufferSize);
+        emitter.onCompletion(() -> close(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(error -> close(connection));
+        connections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        openConnections.incrementAndGet();
+    }
+
+    //? Fan out a notification to every open stream of the user
+    public void send(Integer userId, Notification notification) {
+        var userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (SseConnection connection : userConnections) {
+            enqueue(connection, SseEmitter.event().name("notification").data(notification));
+        }
+    }
+
+    void sendHeartbeat() {
+        for (Set<SseConnection> userConnections : connections.values()) {
+            for (SseConnection connection : userConnections) {
+                enqueue(connection, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void enqueue(SseConnection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.getClosed().get()) {
+            return;
+        }
+        //! a full buffer means the client does not keep up: drop it instead of buffering without bound
+        if (!connection.getBuffer().offer(event)) {
+            int dropped = connection.getBuffer().size() + 1;
+            if (close(connection)) {
+                droppedEvents.increment(dropped);
+                evictedConnections.increment();
+                log.debug("Evicting slow notification stream of user {}", connection.getUserId());
+                //! complete() waits for the write lock held by the stalled send(): never run it on the publisher's thread
+                writers.execute(() -> connection.getEmitter().complete());
+            }
+            return;
+        }
+        if (connection.getDraining().compareAndSet(false, true)) {
+            writers.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(SseConnection connection) {
+        do {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!connection.getClosed().get() && (event = connection.getBuffer().poll()) != null) {
+                    connection.getEmitter().send(event);
+                    deliveredEvents.increment();
+                }
+            } catch (IOException | IllegalStateException e) {
+                droppedEvents.increment(connection.getBuffer().size() + 1);
+                close(connection);
+            } finally {
+                connection.getDraining().set(false);
+            }
+            //! an event may have been queued after the last poll but before the flag was released
+        } while (!connection.getClosed().get()
+                && !connection.getBuffer().isEmpty()
+                && connection.getDraining().compareAndSet(false, true));
+    }
+
+    //! true only for the call that actually closed the connection
+    private boolean close(SseConnection connection) {
+        if (!connection.getClosed().compareAndSet(false, true)) {
+            return false;
+        }
+        openConnections.decrementAndGet();
+        connection.getBuffer().clear();
+        connections.computeIfPresent(connection.getUserId(), (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        connections.values().forEach(userConnections -> userConnections.forEach(
+                connection -> writers.execute(() -> connection.getEmitter().complete())
+        ));
+        writers.shutdown();
+    }
+}
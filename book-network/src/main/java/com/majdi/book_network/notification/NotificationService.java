@@ -0,0 +1,62 @@
+package com.majdi.book_network.notification;
+
+import com.majdi.book_network.event.BookActivityEvent;
+import com.majdi.book_network.security.JwtService;
+import com.majdi.book_network.user.User;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+
+//? Push notifications of the borrow / return workflow to the concerned user, instead of letting the clients poll
+@Service
+@RequiredArgsConstructor
+public class NotificationService {
+
+    private final NotificationHub notificationHub;
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+
+    //? Authenticate the stream once, when it is opened
+    public SseEmitter subscribe(String token) {
+        User user;
+        try {
+            var userEmail = jwtService.extractUsername(token);
+            user = (User) userDetailsService.loadUserByUsername(userEmail);
+        } catch (JwtException | AuthenticationException | IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token", e);
+        }
+        if (!jwtService.isTokenValid(token, user) || !user.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+        }
+        return notificationHub.open(user.getId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookActivity(BookActivityEvent event) {
+        String message = switch (event.type()) {
+            case BORROWED -> "Your book was borrowed";
+            case RETURNED -> "Your book was returned, please approve the return";
+            case RETURN_APPROVED -> "The return of your borrowed book was approved";
+            case REVIEWED -> "Your book received a new feedback";
+            case SHARED -> null;
+        };
+        if (message == null || event.recipientId() == null) {
+            return;
+        }
+        notificationHub.send(event.recipientId(), Notification.builder()
+                .type(event.type())
+                .bookId(event.bookId())
+                .actorId(event.actorId())
+                .message(message)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+}
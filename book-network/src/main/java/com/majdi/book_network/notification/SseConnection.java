@@ -0,0 +1,25 @@
+package com.majdi.book_network.notification;
+
+import lombok.Getter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//? One open SSE stream of a user, with its own bounded buffer of events waiting to be written
+@Getter
+class SseConnection {
+
+    private final Integer userId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+    private final AtomicBoolean draining = new AtomicBoolean();        //* at most one writer per connection
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    SseConnection(Integer userId, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+}
@@ -0,0 +1,163 @@
+package com.majdi.book_network.recommendation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
+
+//? Sparse, symmetric book x book matrix: how many readers borrowed both books. Not thread safe
+public class CooccurrenceMatrix {
+
+    private static final int INITIAL_ROWS = 1024;
+    private static final int INITIAL_ROW_SIZE = 8;
+    //! baskets handled by one fork/join leaf before splitting stops
+    private static final int BASKETS_PER_TASK = 4096;
+
+    private final IntIntHashMap rowSlots = new IntIntHashMap(INITIAL_ROWS);   //* book id -> index in rows + 1 (0 means no row yet)
+    private IntIntHashMap[] rows = new IntIntHashMap[INITIAL_ROWS];
+    private int[] rowBookIds = new int[INITIAL_ROWS];
+    private int rowCount;
+    private long entryCount;
+
+    //? Count all the baskets (distinct books of one reader each) in parallel on the pool
+    public static CooccurrenceMatrix build(List<int[]> baskets, ForkJoinPool pool) {
+        return pool.invoke(new BuildTask(baskets, 0, baskets.size()));
+    }
+
+    //? All the distinct books borrowed by one reader
+    public void addBasket(int[] bookIds) {
+        for (int i = 0; i < bookIds.length; i++) {
+            for (int j = i + 1; j < bookIds.length; j++) {
+                increment(bookIds[i], bookIds[j], 1);
+            }
+        }
+    }
+
+    //? A reader borrowed a new book: it now co-occurs with every other book they borrowed before
+    public void addToBasket(int newBookId, int[] previousBookIds) {
+        for (int previousBookId : previousBookIds) {
+            if (previousBookId != newBookId) {
+                increment(newBookId, previousBookId, 1);
+            }
+        }
+    }
+
+    public void increment(int bookId, int otherBookId, int delta) {
+        add(row(bookId), otherBookId, delta);
+        add(row(otherBookId), bookId, delta);
+    }
+
+    //? Add the counts of another matrix (used to combine the fork/join partial results)
+    public void merge(CooccurrenceMatrix other) {
+        for (int i = 0; i < other.rowCount; i++) {
+            IntIntHashMap target = row(other.rowBookIds[i]);
+            other.rows[i].forEach((otherBookId, count) -> add(target, otherBookId, count));
+        }
+    }
+
+    public void forEachBook(IntConsumer consumer) {
+        for (int i = 0; i < rowCount; i++) {
+            consumer.accept(rowBookIds[i]);
+        }
+    }
+
+    //? The n books most often borrowed together with the book, best first (ties: smallest id first)
+    public int[] topN(int bookId, int n) {
+        int slot = rowSlots.get(bookId);
+        if (slot == 0 || n <= 0) {
+            return new int[0];
+        }
+        int[] bestIds = new int[n];
+        int[] bestCounts = new int[n];
+        int[] found = new int[1];
+        rows[slot - 1].forEach((otherBookId, count) -> {
+            //! insertion into a small sorted array: n is a few dozens at most
+            int position = found[0];
+            while (position > 0 && isBetter(count, otherBookId, bestCounts[position - 1], bestIds[position - 1])) {
+                position--;
+            }
+            if (position >= n) {
+                return;
+            }
+            int shifted = Math.min(found[0], n - 1) - position;
+            System.arraycopy(bestIds, position, bestIds, position + 1, shifted);
+            System.arraycopy(bestCounts, position, bestCounts, position + 1, shifted);
+            bestIds[position] = otherBookId;
+            bestCounts[position] = count;
+            found[0] = Math.min(found[0] + 1, n);
+        });
+        return found[0] == n ? bestIds : Arrays.copyOf(bestIds, found[0]);
+    }
+
+    //! number of stored (book, other book) counters, each pair being stored in both rows
+    public long entryCount() {
+        return entryCount;
+    }
+
+    public long sizeInBytes() {
+        long bytes = rowSlots.sizeInBytes() + (long) rows.length * (Integer.BYTES + 8);
+        for (int i = 0; i < rowCount; i++) {
+            bytes += rows[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private void add(IntIntHashMap row, int otherBookId, int delta) {
+        if (row.addTo(otherBookId, delta) == delta) {
+            entryCount++;
+        }
+    }
+
+    private IntIntHashMap row(int bookId) {
+        int slot = rowSlots.get(bookId);
+        if (slot == 0) {
+            if (rowCount == rows.length) {
+                rows = Arrays.copyOf(rows, rows.length * 2);
+                rowBookIds = Arrays.copyOf(rowBookIds, rowBookIds.length * 2);
+            }
+            rows[rowCount] = new IntIntHashMap(INITIAL_ROW_SIZE);
+            rowBookIds[rowCount] = bookId;
+            rowCount++;
+            rowSlots.put(bookId, rowCount);
+            slot = rowCount;
+        }
+        return rows[slot - 1];
+    }
+
+    private static boolean isBetter(int count, int bookId, int otherCount, int otherBookId) {
+        return count > otherCount || (count == otherCount && bookId < otherBookId);
+    }
+
+    //? Each leaf counts its own range of baskets into a private matrix, the halves are merged on the way back
+    private static class BuildTask extends RecursiveTask<CooccurrenceMatrix> {
+
+        private final List<int[]> baskets;
+        private final int from;
+        private final int to;
+
+        BuildTask(List<int[]> baskets, int from, int to) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CooccurrenceMatrix compute() {
+            if (to - from <= BASKETS_PER_TASK) {
+                CooccurrenceMatrix partial = new CooccurrenceMatrix();
+                for (int i = from; i < to; i++) {
+                    partial.addBasket(baskets.get(i));
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(baskets, from, middle);
+            left.fork();
+            CooccurrenceMatrix right = new BuildTask(baskets, middle, to).compute();
+            CooccurrenceMatrix merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+}
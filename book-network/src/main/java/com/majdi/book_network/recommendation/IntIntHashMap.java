@@ -0,0 +1,113 @@
+package com.majdi.book_network.recommendation;
+
+//? Open addressing int -> int map (linear probing), two flat int arrays instead of boxed Map entries.
+//! 0 is the empty marker, so 0 cannot be used as a key (book ids start at 1)
+public class IntIntHashMap {
+
+    private static final int EMPTY = 0;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(tableSizeFor((int) (Math.max(expectedSize, 2) / LOAD_FACTOR) + 1));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    //? Value of the key, 0 when absent
+    public int get(int key) {
+        int slot = slotOf(key);
+        return keys[slot] == EMPTY ? 0 : values[slot];
+    }
+
+    public void put(int key, int value) {
+        int slot = insertionSlot(key);
+        values[slot] = value;
+    }
+
+    //? Add delta to the value of the key (0 when absent) and return the new value
+    public int addTo(int key, int delta) {
+        int slot = insertionSlot(key);
+        values[slot] += delta;
+        return values[slot];
+    }
+
+    public void forEach(IntIntConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    //! retained heap of the two arrays, for the memory metrics
+    public long sizeInBytes() {
+        return 2L * Integer.BYTES * keys.length;
+    }
+
+    private int insertionSlot(int key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("0 cannot be used as a key");
+        }
+        int slot = slotOf(key);
+        if (keys[slot] == EMPTY) {
+            if (size >= resizeAt) {
+                grow();
+                slot = slotOf(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        return slot;
+    }
+
+    //! slot holding the key, or the empty slot where it would be inserted
+    private int slotOf(int key) {
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != EMPTY) {
+                int newSlot = slotOf(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                values[newSlot] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;                    //* Fibonacci hashing spreads sequential ids
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Math.max(4, Integer.highestOneBit(capacity - 1) << 1);
+    }
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+}
@@ -0,0 +1,35 @@
+package com.majdi.book_network.recommendation;
+
+import com.majdi.book_network.book.BookResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("recommendations")
+@RequiredArgsConstructor
+@Tag(name = "Recommendation")
+public class RecommendationController {
+
+    private static final int MAX_SIZE = 50;
+
+    private final RecommendationService service;
+
+    //? Books also borrowed by the readers of a Book
+    @GetMapping("/books/{book-id}")
+    public ResponseEntity<List<BookResponse>> findRecommendations(
+            @PathVariable("book-id") Integer bookId,
+            @RequestParam(name = "size", defaultValue = "10", required = false)
+            @Min(value = 1, message = "Size must be between 1 and " + MAX_SIZE)
+            @Max(value = MAX_SIZE, message = "Size must be between 1 and " + MAX_SIZE) int size,
+            Authentication connectedUser
+    ) {
+        return ResponseEntity.ok(service.findRecommendations(bookId, size, connectedUser));
+    }
+}
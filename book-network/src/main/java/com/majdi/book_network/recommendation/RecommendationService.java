@@ -0,0 +1,186 @@
+package com.majdi.book_network.recommendation;
+
+import com.majdi.book_network.book.BookResponse;
+import com.majdi.book_network.book.BookService;
+import com.majdi.book_network.event.BookActivityEvent;
+import com.majdi.book_network.event.BookActivityType;
+import com.majdi.book_network.history.BookTransactionHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+//? "Readers also borrowed": item to item co-occurrence of the borrow history, served from memory
+@Slf4j
+@Service
+public class RecommendationService {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTemplate;
+    private final BookTransactionHistoryRepository transactionHistoryRepository;
+    private final BookService bookService;
+    private final int topN;
+
+    private final Object lock = new Object();
+    private CooccurrenceMatrix matrix = new CooccurrenceMatrix();          //* guarded by lock
+    private List<PendingBorrow> pendingDuringRebuild;                      //* guarded by lock, not null while a rebuild runs
+    private volatile TopNIndex topNIndex = TopNIndex.EMPTY;
+
+    public RecommendationService(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            BookTransactionHistoryRepository transactionHistoryRepository,
+            BookService bookService,
+            @Value("${application.recommendation.top-n}") int topN
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionHistoryRepository = transactionHistoryRepository;
+        this.bookService = bookService;
+        this.topN = topN;
+        //! REPEATABLE READ: the highest history id and the baskets are read from the same snapshot
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+    }
+
+    //! the whole precomputed list is filtered, so that hidden books (archived, not shareable, the caller's own) do not shorten the page
+    public List<BookResponse> findRecommendations(Integer bookId, int size, Authentication connectedUser) {
+        int[] bookIds = topNIndex.get(bookId);
+        List<Integer> ids = new ArrayList<>(bookIds.length);
+        for (int id : bookIds) {
+            ids.add(id);
+        }
+        return bookService.findDisplayableByIds(ids, size, connectedUser);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    //? Incremental update: the borrower's first borrow of this book pairs it with every book they borrowed before
+    //! the listener runs later than the borrow: both reads stop at its history id, so a pair is only counted by its later borrow
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookActivity(BookActivityEvent event) {
+        if (event.type() != BookActivityType.BORROWED
+                || transactionHistoryRepository.existsByUserIdAndBookIdAndIdLessThan(event.actorId(), event.bookId(), event.historyId())) {
+            return;
+        }
+        int[] previousBookIds = transactionHistoryRepository.findBorrowedBookIdsBefore(event.actorId(), event.historyId())
+                .stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+        synchronized (lock) {
+            matrix.addToBasket(event.bookId(), previousBookIds);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(new PendingBorrow(event.historyId(), event.bookId(), previousBookIds));
+            }
+        }
+    }
+
+    //? Recompute the top-N snapshot from the live matrix
+    @Scheduled(initialDelayString = "${application.recommendation.refresh-interval-ms}", fixedDelayString = "${application.recommendation.refresh-interval-ms}")
+    public void refreshTopN() {
+        TopNIndex index;
+        synchronized (lock) {
+            index = TopNIndex.of(matrix, topN);
+        }
+        topNIndex = index;
+    }
+
+    //? Full rebuild from the database, in parallel, without blocking the incremental updates meanwhile
+    //! runs on the task executor: a long rebuild must not hold the scheduler thread of the other jobs
+    @Async
+    @Scheduled(cron = "${application.recommendation.rebuild-cron}")
+    public void rebuild() {
+        synchronized (lock) {
+            if (pendingDuringRebuild != null) {
+                return;                                 //* a rebuild is already running
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        try {
+            long start = System.nanoTime();
+            Snapshot snapshot = loadBaskets();
+            List<int[]> baskets = snapshot.baskets();
+            CooccurrenceMatrix rebuilt = CooccurrenceMatrix.build(baskets, ForkJoinPool.commonPool());
+            synchronized (lock) {
+                //! only the borrows the snapshot did not see are replayed, the others are already counted
+                for (PendingBorrow borrow : pendingDuringRebuild) {
+                    if (borrow.historyId() > snapshot.maxHistoryId()) {
+                        rebuilt.addToBasket(borrow.bookId(), borrow.previousBookIds());
+                    }
+                }
+                matrix = rebuilt;
+            }
+            refreshTopN();
+            log.info("Recommendations rebuilt from {} readers in {} ms: {} counters, ~{} KB",
+                    baskets.size(), (System.nanoTime() - start) / 1_000_000, rebuilt.entryCount(), rebuilt.sizeInBytes() / 1024);
+        } finally {
+            synchronized (lock) {
+                pendingDuringRebuild = null;
+            }
+        }
+    }
+
+    //! streams the distinct (reader, book) pairs ordered by reader: one int[] of book ids per reader
+    private Snapshot loadBaskets() {
+        List<int[]> baskets = new ArrayList<>();
+        Integer maxHistoryId = snapshotTemplate.execute(status -> {      //* the PostgreSQL driver only honors the fetch size inside a transaction
+            Integer maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM book_transaction_history", Integer.class);
+            int[] currentUser = {-1};
+            int[][] basket = {new int[16]};
+            int[] basketSize = {0};
+            jdbcTemplate.query(connection -> {
+                var statement = connection.prepareStatement(
+                        "SELECT DISTINCT user_id, book_id FROM book_transaction_history ORDER BY user_id"
+                );
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, resultSet -> {
+                int userId = resultSet.getInt(1);
+                if (userId != currentUser[0]) {
+                    if (basketSize[0] > 1) {
+                        baskets.add(Arrays.copyOf(basket[0], basketSize[0]));
+                    }
+                    currentUser[0] = userId;
+                    basketSize[0] = 0;
+                }
+                if (basketSize[0] == basket[0].length) {
+                    basket[0] = Arrays.copyOf(basket[0], basket[0].length * 2);
+                }
+                basket[0][basketSize[0]++] = resultSet.getInt(2);
+            });
+            if (basketSize[0] > 1) {
+                baskets.add(Arrays.copyOf(basket[0], basketSize[0]));
+            }
+            return maxId;
+        });
+        return new Snapshot(baskets, maxHistoryId);
+    }
+
+    private record Snapshot(List<int[]> baskets, int maxHistoryId) {
+    }
+
+    //! a borrow applied to the live matrix while a rebuild runs, replayed on the rebuilt one if its snapshot missed it
+    private record PendingBorrow(int historyId, int bookId, int[] previousBookIds) {
+    }
+}
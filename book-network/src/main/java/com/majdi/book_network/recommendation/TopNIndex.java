@@ -0,0 +1,37 @@
+package com.majdi.book_network.recommendation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//? Immutable snapshot of the precomputed recommendations of every book, read without locking
+public class TopNIndex {
+
+    public static final TopNIndex EMPTY = new TopNIndex(new IntIntHashMap(0), new int[0][]);
+
+    private final IntIntHashMap slots;                  //* book id -> index in recommendations + 1
+    private final int[][] recommendations;
+
+    private TopNIndex(IntIntHashMap slots, int[][] recommendations) {
+        this.slots = slots;
+        this.recommendations = recommendations;
+    }
+
+    //! the caller must prevent concurrent updates of the matrix while the index is built
+    public static TopNIndex of(CooccurrenceMatrix matrix, int n) {
+        IntIntHashMap slots = new IntIntHashMap(1024);
+        List<int[]> recommendations = new ArrayList<>();
+        matrix.forEachBook(bookId -> {
+            int[] top = matrix.topN(bookId, n);
+            if (top.length > 0) {
+                recommendations.add(top);
+                slots.put(bookId, recommendations.size());
+            }
+        });
+        return new TopNIndex(slots, recommendations.toArray(new int[0][]));
+    }
+
+    public int[] get(int bookId) {
+        int slot = slots.get(bookId);
+        return slot == 0 ? new int[0] : recommendations[slot - 1];
+    }
+}
@@ -0,0 +1,111 @@
+package com.majdi.book_network.security;
+
+import io.jsonwebtoken.Header;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.security.InvalidKeyException;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.MacAlgorithm;
+import org.springframework.stereotype.Component;
+
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+//? Signing and verification keys of the JWTs, decoded once at startup and selected by the kid header.
+//! rotation: add the new key, make it active, and remove the old one once its last tokens expired
+@Component
+public class JwtKeyRing {
+
+    private final Map<String, Key> verificationKeys = new HashMap<>();
+    private final String activeKeyId;
+    private final UnaryOperator<JwtBuilder> activeSigner;
+    private final String legacyKeyId;
+
+    public JwtKeyRing(JwtProperties properties) {
+        UnaryOperator<JwtBuilder> signer = null;
+        for (JwtProperties.Key key : properties.getKeys()) {
+            UnaryOperator<JwtBuilder> keySigner = register(key);
+            if (key.getId().equals(properties.getActiveKeyId())) {
+                signer = keySigner;
+            }
+        }
+        if (signer == null) {
+            throw new IllegalStateException("The active JWT key " + properties.getActiveKeyId() + " is missing or cannot sign");
+        }
+        this.activeKeyId = properties.getActiveKeyId();
+        this.activeSigner = signer;
+        this.legacyKeyId = properties.getLegacyKeyId();
+    }
+
+    //? Sign with the active key and announce it in the kid header
+    public JwtBuilder sign(JwtBuilder builder) {
+        return activeSigner.apply(builder.header().keyId(activeKeyId).and());
+    }
+
+    //? Key locator of the parser: the kid header picks the verification key
+    public Key locate(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        if (keyId == null) {
+            keyId = legacyKeyId;
+        }
+        Key key = keyId == null ? null : verificationKeys.get(keyId);
+        if (key == null) {
+            throw new InvalidKeyException("Unknown JWT key id: " + keyId);
+        }
+        return key;
+    }
+
+    //! returns the signer of the key, or null for a verify-only key. Misconfigured keys fail at startup, not at the first login
+    private UnaryOperator<JwtBuilder> register(JwtProperties.Key key) {
+        try {
+            if ("EdDSA".equals(key.getAlgorithm())) {
+                requireValue(key, key.getPublicKey(), "public-key");
+                KeyFactory keyFactory = KeyFactory.getInstance("Ed25519");
+                verificationKeys.put(key.getId(), keyFactory.generatePublic(
+                        new X509EncodedKeySpec(Decoders.BASE64.decode(key.getPublicKey()))
+                ));
+                if (key.getPrivateKey() == null) {
+                    return null;
+                }
+                PrivateKey privateKey = keyFactory.generatePrivate(
+                        new PKCS8EncodedKeySpec(Decoders.BASE64.decode(key.getPrivateKey()))
+                );
+                return builder -> builder.signWith(privateKey, Jwts.SIG.EdDSA);
+            }
+            MacAlgorithm algorithm = switch (requireValue(key, key.getAlgorithm(), "algorithm")) {
+                case "HS256" -> Jwts.SIG.HS256;
+                case "HS384" -> Jwts.SIG.HS384;
+                case "HS512" -> Jwts.SIG.HS512;
+                default -> throw new IllegalStateException("Unsupported JWT algorithm " + key.getAlgorithm() + " for key " + key.getId());
+            };
+            byte[] secret = Decoders.BASE64.decode(requireValue(key, key.getSecret(), "secret"));
+            //! signWith only checks the strength when signing: an HS512 key with a 256 bits secret would fail at the first login
+            if (secret.length * Byte.SIZE < algorithm.getKeyBitLength()) {
+                throw new IllegalStateException("JWT key " + key.getId() + " has a " + secret.length * Byte.SIZE + " bits secret, "
+                        + key.getAlgorithm() + " needs at least " + algorithm.getKeyBitLength() + " bits");
+            }
+            var secretKey = Keys.hmacShaKeyFor(secret);
+            verificationKeys.put(key.getId(), secretKey);
+            return builder -> builder.signWith(secretKey, algorithm);
+        } catch (GeneralSecurityException | DecodingException e) {
+            throw new IllegalStateException("Invalid JWT key " + key.getId(), e);
+        }
+    }
+
+    private static String requireValue(JwtProperties.Key key, String value, String property) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("JWT key " + key.getId() + " has no " + property);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.majdi.book_network.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+//? application.security.jwt: token lifetime, claims profile and the key ring
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "application.security.jwt")
+public class JwtProperties {
+
+    private long expiration;
+    private boolean compactClaims;                      //* short role codes, no display-only claims
+    private String activeKeyId;                         //* the key signing the new tokens
+    private String legacyKeyId;                         //* optional, verifies the tokens issued before kid headers existed
+    private List<Key> keys = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Key {
+        private String id;
+        private String algorithm;                       //* HS256, HS384, HS512 or EdDSA
+        private String secret;                          //* base64, HMAC keys only
+        private String privateKey;                      //* base64 PKCS#8, EdDSA keys only, absent on verify-only keys
+        private String publicKey;                       //* base64 X.509, EdDSA keys only
+    }
+}
@@ -1,15 +1,12 @@
 package com.majdi.book_network.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,10 +15,24 @@ import java.util.function.Function;
 //? Defining JWT Service that includes methodes to  extract userDetails(claims) and generate the JWT Token
 @Service
 public class JwtService {
-    @Value("${application.security.jwt.expiration}")
-    private long jwtExpiration;
-    @Value("${application.security.jwt.secret-key}")
-    private String secretKey;
+
+    private final JwtKeyRing keyRing;
+    private final JwtParser parser;                     //* immutable and thread safe: built once, not per request
+    private final long jwtExpiration;
+    private final boolean compactClaims;
+
+    public JwtService(JwtKeyRing keyRing, JwtProperties properties) {
+        this.keyRing = keyRing;
+        this.parser = Jwts.parser()
+                .keyLocator(keyRing::locate)
+                .build();
+        this.jwtExpiration = properties.getExpiration();
+        this.compactClaims = properties.isCompactClaims();
+    }
+
+    public boolean isCompactClaims() {
+        return compactClaims;
+    }
 
     public String extractUsername(String token) {
         return extractClaims(token, Claims::getSubject);
@@ -33,12 +44,9 @@ public class JwtService {
     }
 
     public Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser
+                .parseSignedClaims(token)
+                .getPayload();
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -53,33 +61,22 @@ public class JwtService {
         var authorities = userDetails.getAuthorities()
                 .stream()
                 .map(GrantedAuthority::getAuthority)
+                .map(authority -> compactClaims ? RoleCodes.toCode(authority) : authority)
                 .toList();
-        return Jwts
+        long now = System.currentTimeMillis();
+        var builder = Jwts
                 .builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .claim("authorities", authorities)
-                .signWith(getSignInKey())
-                .compact();
+                .claims(extraClaims)
+                .subject(userDetails.getUsername())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpiration))
+                .claim(compactClaims ? "rol" : "authorities", authorities);
+        return keyRing.sign(builder).compact();
     }
 
+    //! one parse per call: the signature and the expiration are checked by the parser itself
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(String token) {
-        return extractClaims(token, Claims::getExpiration);
-    }
-
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        final Claims claims = extractAllClaims(token);
+        return userDetails.getUsername().equals(claims.getSubject()) && claims.getExpiration().after(new Date());
     }
 }
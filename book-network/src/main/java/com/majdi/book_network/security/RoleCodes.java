@@ -0,0 +1,20 @@
+package com.majdi.book_network.security;
+
+import java.util.Map;
+
+//? Short role codes of the compact claims profile
+public final class RoleCodes {
+
+    private static final Map<String, String> CODES = Map.of(
+            "USER", "u",
+            "ADMIN", "a"
+    );
+
+    private RoleCodes() {
+    }
+
+    //! unknown roles keep their full name, so a new role works before it gets a code
+    public static String toCode(String role) {
+        return CODES.getOrDefault(role, role);
+    }
+}
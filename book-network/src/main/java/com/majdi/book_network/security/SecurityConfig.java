@@ -38,7 +38,8 @@ public class SecurityConfig {
                                 "/configuration/security",
                                 "/swagger-ui/**",
                                 "webjars/**",
-                                "swagger-ui.html"
+                                "swagger-ui.html",
+                                "/notifications/stream"       //* the stream authenticates its token itself, once per connection
                         ).permitAll()
                                 .anyRequest()
                                 .authenticated()
@@ -1,5 +1,8 @@
 package com.majdi.book_network.security;
 
+import com.majdi.book_network.user.User;
+import com.majdi.book_network.writebehind.BufferedColumn;
+import com.majdi.book_network.writebehind.WriteBehindBuffer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.LocalDateTime;
 
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 
@@ -26,6 +30,7 @@ import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 public class jwtFilter extends OncePerRequestFilter {
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final WriteBehindBuffer writeBehindBuffer;
 
     @Override
     protected void doFilterInternal(
@@ -39,6 +44,11 @@ public class jwtFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
             return;
         }
+        //! the notification stream validates its token itself, once per connection
+        if (request.getServletPath().equals("/notifications/stream")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
         final String authHeader = request.getHeader(AUTHORIZATION);
         final String jwt;
         final String userEmail;
@@ -73,6 +83,11 @@ public class jwtFilter extends OncePerRequestFilter {
 
                 //! Storing the Token in the Security Context so that the user is consdered authenticated
                 SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                //! last seen: coalesced in memory and written in batches, not one UPDATE per request
+                if (userDetails instanceof User user) {
+                    writeBehindBuffer.update(BufferedColumn.USER_LAST_SEEN_AT, user.getId(), LocalDateTime.now());
+                }
             }
         }
         filterChain.doFilter(request, response);
@@ -51,6 +51,9 @@ public class User implements UserDetails, Principal {
     @Column(insertable = false)
     //* prevents the field from being populated when a new record is inserted. Instead, it is only populated on update
     private LocalDateTime lastModifiedDate;
+    @Column(insertable = false, updatable = false)
+    //* read only for JPA: only written behind by the WriteBehindBuffer, so saving a User never overwrites it
+    private LocalDateTime lastSeenAt;
 
     @Override
     public String getName() {
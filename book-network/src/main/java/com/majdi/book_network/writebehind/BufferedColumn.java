@@ -0,0 +1,17 @@
+package com.majdi.book_network.writebehind;
+
+//? Non-critical, high-frequency columns that may be written behind: losing the last seconds of updates on a crash is acceptable.
+//! table and column names are constants, never user input: they are concatenated into the UPDATE statement
+public enum BufferedColumn {
+    USER_LAST_SEEN_AT("_user", "last_seen_at");
+
+    private final String updateSql;
+
+    BufferedColumn(String table, String column) {
+        this.updateSql = "UPDATE " + table + " SET " + column + " = ? WHERE id = ?";
+    }
+
+    public String updateSql() {
+        return updateSql;
+    }
+}
@@ -0,0 +1,128 @@
+package com.majdi.book_network.writebehind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//? Write-behind buffer: repeated updates of the same row are coalesced in memory and flushed as JDBC batch UPDATEs
+@Slf4j
+@Component
+public class WriteBehindBuffer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxPending;
+    private final Map<BufferedColumn, ConcurrentHashMap<Integer, Object>> pending = new EnumMap<>(BufferedColumn.class);
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Counter submittedUpdates;
+    private final Counter flushedRows;
+    private final Timer flushTimer;
+
+    public WriteBehindBuffer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${application.write-behind.max-pending}") int maxPending
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.maxPending = maxPending;
+        for (BufferedColumn column : BufferedColumn.values()) {
+            pending.put(column, new ConcurrentHashMap<>());
+        }
+        this.submittedUpdates = meterRegistry.counter("write_behind.updates.submitted");
+        this.flushedRows = meterRegistry.counter("write_behind.rows.flushed");
+        this.flushTimer = meterRegistry.timer("write_behind.flush");
+        Gauge.builder("write_behind.pending", this, WriteBehindBuffer::pendingCount)
+                .register(meterRegistry);
+        //! 0.9 means that 9 updates out of 10 never reached the database
+        Gauge.builder("write_behind.coalescing_ratio", this, buffer -> buffer.submittedUpdates.count() == 0
+                        ? 0.0
+                        : 1.0 - buffer.flushedRows.count() / buffer.submittedUpdates.count())
+                .register(meterRegistry);
+    }
+
+    //? Record the new value of the column for the row, only the last value before the flush is written
+    public void update(BufferedColumn column, Integer id, Object value) {
+        pending.get(column).put(id, value);
+        submittedUpdates.increment();
+        if (pendingCount() >= maxPending && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flush();
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.write-behind.flush-interval-ms}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    //! synchronized: the size and time triggers never flush concurrently
+    public synchronized void flush() {
+        for (BufferedColumn column : BufferedColumn.values()) {
+            flush(column, pending.get(column));
+        }
+    }
+
+    private void flush(BufferedColumn column, ConcurrentHashMap<Integer, Object> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Integer, Object>> snapshot = new ArrayList<>(rows.size());
+        rows.forEach((id, value) -> snapshot.add(Map.entry(id, value)));
+        snapshot.sort(Map.Entry.comparingByKey());      //* same lock order in every flush, no deadlock between instances
+
+        List<Object[]> arguments = new ArrayList<>(snapshot.size());
+        for (Map.Entry<Integer, Object> entry : snapshot) {
+            arguments.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+        try {
+            flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                    status -> jdbcTemplate.batchUpdate(column.updateSql(), arguments)
+            ));
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush of {} failed, {} rows kept for the next flush", column, snapshot.size(), e);
+            return;
+        }
+        flushedRows.increment(snapshot.size());
+
+        //! a value updated again during the flush stays pending for the next one
+        for (Map.Entry<Integer, Object> entry : snapshot) {
+            rows.remove(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private double pendingCount() {
+        int count = 0;
+        for (ConcurrentHashMap<Integer, Object> rows : pending.values()) {
+            count += rows.size();
+        }
+        return count;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        flush();
+    }
+}
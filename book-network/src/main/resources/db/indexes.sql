@@ -0,0 +1,15 @@
+-- Indexes Hibernate (ddl-auto: update) cannot express, run after the schema update
+
+-- at most one active (not yet approved) borrow per book, whatever happens in the application
+CREATE UNIQUE INDEX IF NOT EXISTS uk_book_transaction_history_active_book
+    ON book_transaction_history (book_id)
+    WHERE return_approved = false;
+
+CREATE INDEX IF NOT EXISTS idx_book_transaction_history_active_user
+    ON book_transaction_history (user_id)
+    WHERE return_approved = false;
+
+-- keyset scan of the catalog (shareable, not archived books, newest first)
+CREATE INDEX IF NOT EXISTS idx_book_displayable
+    ON book (id DESC)
+    WHERE shareable = true AND archived = false;
@@ -0,0 +1,145 @@
+package com.majdi.book_network.book;
+
+import com.majdi.book_network.exception.OperationNotPermittedException;
+import com.majdi.book_network.user.User;
+import com.majdi.book_network.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? Many borrowers racing for the same books on the docker-compose database: run with mvn test -Pstress
+@Tag("stress")
+@SpringBootTest
+class BorrowContentionStressTest {
+
+    private static final int BORROWERS = 32;
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final List<Integer> userIds = new ArrayList<>();
+
+    @Test
+    void exactlyOneBorrowerWinsEachBook() throws Exception {
+        User owner = newUser();
+        List<Authentication> borrowers = new ArrayList<>();
+        for (int i = 0; i < BORROWERS; i++) {
+            User borrower = newUser();
+            borrowers.add(new UsernamePasswordAuthenticationToken(borrower, null, borrower.getAuthorities()));
+        }
+
+        AtomicInteger claims = new AtomicInteger();
+        AtomicInteger refusals = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        long elapsedNanos = 0;
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(BORROWERS)) {
+            for (int round = 0; round < ROUNDS; round++) {
+                Integer bookId = newBook(owner);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> attempts = new ArrayList<>();
+                for (Authentication borrower : borrowers) {
+                    attempts.add(pool.submit(() -> {
+                        start.await();
+                        try {
+                            bookService.borrowBook(bookId, borrower);
+                            claims.incrementAndGet();
+                        } catch (OperationNotPermittedException e) {
+                            refusals.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                        return null;
+                    }));
+                }
+
+                long roundStart = System.nanoTime();
+                start.countDown();
+                for (Future<?> attempt : attempts) {
+                    attempt.get();
+                }
+                elapsedNanos += System.nanoTime() - roundStart;
+
+                assertThat(bookRepository.findById(bookId)).get().extracting(Book::isBorrowed).isEqualTo(true);
+            }
+        }
+
+        int attempts = ROUNDS * BORROWERS;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf(
+                "borrow contention: %d books x %d borrowers, %.1f claims/s, %.1f attempts/s, conflict rate %.2f%%, %d failures%n",
+                ROUNDS, BORROWERS, claims.get() / seconds, attempts / seconds, 100.0 * refusals.get() / attempts, failures.get()
+        );
+
+        assertThat(claims).hasValue(ROUNDS);
+        assertThat(refusals).hasValue(attempts - ROUNDS);
+        assertThat(failures).hasValue(0);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM book_transaction_history WHERE user_id IN (:userIds)",
+                Map.of("userIds", userIds),
+                Integer.class
+        )).isEqualTo(ROUNDS);
+    }
+
+    //! the compose database is shared with the application, remove everything this test created
+    @AfterEach
+    void cleanUp() {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        var params = Map.of("userIds", userIds);
+        jdbcTemplate.update("DELETE FROM book_transaction_history WHERE user_id IN (:userIds)", params);
+        jdbcTemplate.update("DELETE FROM feed_event WHERE actor_id IN (:userIds)", params);
+        jdbcTemplate.update("DELETE FROM book WHERE owner_id IN (:userIds)", params);
+        jdbcTemplate.update("DELETE FROM _user WHERE id IN (:userIds)", params);
+        userIds.clear();
+    }
+
+    private User newUser() {
+        User user = userRepository.save(User.builder()
+                .firstName("Stress")
+                .lastName("Test")
+                .email("stress-" + UUID.randomUUID() + "@test.local")
+                .password("not-a-password")
+                .accountLocked(false)
+                .enabled(true)
+                .roles(List.of())
+                .build());
+        userIds.add(user.getId());
+        return user;
+    }
+
+    private Integer newBook(User owner) {
+        return bookRepository.save(Book.builder()
+                .title("Contended book")
+                .authorName("Stress Test")
+                .isbn("0000000000")
+                .shareable(true)
+                .owner(owner)
+                .build()).getId();
+    }
+}
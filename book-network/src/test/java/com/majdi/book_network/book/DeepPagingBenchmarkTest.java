@@ -0,0 +1,131 @@
+package com.majdi.book_network.book;
+
+import com.majdi.book_network.common.Benchmark;
+import com.majdi.book_network.user.User;
+import com.majdi.book_network.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? Deep catalog page: keyset cursor against OFFSET plus count(*), the former Page based listing. Run with mvn test -Pstress
+//! -Dstress.paging.books and -Dstress.paging.depth change the scale (page 4000 of 100k books by default)
+@Tag("stress")
+@SpringBootTest
+class DeepPagingBenchmarkTest {
+
+    private static final int BOOKS = Integer.getInteger("stress.paging.books", 100_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int DEPTH = Integer.getInteger("stress.paging.depth", 4_000) * PAGE_SIZE;
+    private static final int PAGES = 50;
+    private static final int WARMUPS = 50;
+    private static final int ITERATIONS = 500;
+
+    //! what the catalog ran before the cursor: the same page reached by skipping rows, then a total for the Page
+    private static final String OFFSET_PAGE = """
+            SELECT book.id, book.title, book.author_name, book.isbn,
+                   CONCAT(owner.first_name, ' ', owner.last_name), book.book_cover,
+                   book.archived, book.shareable, book.borrowed,
+                   rating.rating_sum, rating.rating_count
+            FROM book
+            JOIN _user owner ON owner.id = book.owner_id
+            LEFT JOIN book_rating rating ON rating.book_id = book.id
+            WHERE book.archived = false
+            AND book.shareable = true
+            AND owner.id <> :userId
+            ORDER BY book.id DESC
+            OFFSET :offset
+            LIMIT :size
+            """;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final List<Integer> userIds = new ArrayList<>();
+
+    @Test
+    void cursorAgainstOffsetAndCountAtADeepPage() {
+        User owner = newUser();
+        User reader = newUser();
+        seed(owner.getId());
+        //! PAGES consecutive deep pages, each reached by its offset or by the last id of the page before it
+        int[] offsets = new int[PAGES];
+        int[] cursors = new int[PAGES];
+        for (int page = 0; page < PAGES; page++) {
+            offsets[page] = DEPTH + page * PAGE_SIZE;
+            cursors[page] = jdbcTemplate.queryForObject("""
+                    SELECT book.id FROM book
+                    WHERE book.archived = false AND book.shareable = true AND book.owner_id <> :userId
+                    ORDER BY book.id DESC
+                    OFFSET :offset LIMIT 1
+                    """, Map.of("userId", reader.getId(), "offset", offsets[page] - 1), Integer.class);
+        }
+
+        var keyset = bookRepository.findDisplayableBooks(reader.getId(), cursors[0], PageRequest.ofSize(PAGE_SIZE));
+        var offset = jdbcTemplate.queryForList(OFFSET_PAGE,
+                Map.of("userId", reader.getId(), "offset", offsets[0], "size", PAGE_SIZE));
+        assertThat(keyset.stream().map(BookSummaryResponse::getId).toList())
+                .isEqualTo(offset.stream().map(row -> row.get("id")).toList());
+
+        System.out.printf("deep paging: %,d books, pages of %d from row %,d%n", BOOKS, PAGE_SIZE, DEPTH);
+        var cursor = Benchmark.run("catalog page, keyset cursor", WARMUPS, ITERATIONS,
+                i -> bookRepository.findDisplayableBooks(reader.getId(), cursors[i % PAGES], PageRequest.ofSize(PAGE_SIZE)));
+        var offsetAndCount = Benchmark.run("catalog page, OFFSET + count(*)", WARMUPS, ITERATIONS, i -> {
+            jdbcTemplate.queryForList(OFFSET_PAGE,
+                    Map.of("userId", reader.getId(), "offset", offsets[i % PAGES], "size", PAGE_SIZE));
+            bookRepository.countDisplayableBooks(reader.getId());
+        });
+        System.out.printf("OFFSET + count(*) / cursor: %.1fx at p50, %.1fx at p95%n",
+                offsetAndCount.p50Ms() / cursor.p50Ms(), offsetAndCount.p95Ms() / cursor.p95Ms());
+    }
+
+    //! ids from the Hibernate sequence so that the application can keep inserting
+    private void seed(Integer ownerId) {
+        jdbcTemplate.update("""
+                INSERT INTO book (id, title, author_name, isbn, archived, shareable, borrowed, version, owner_id, created_date)
+                SELECT nextval('book_seq'), 'Benchmark book ' || g, 'Benchmark', lpad(g::text, 13, '0'), false, true, false, 0, :ownerId, now()
+                FROM generate_series(1, :books) g
+                """, Map.of("ownerId", ownerId, "books", BOOKS));
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE book");
+    }
+
+    //! the compose database is shared with the application, remove everything this test created
+    @AfterEach
+    void cleanUp() {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        var params = Map.of("userIds", userIds);
+        jdbcTemplate.update("DELETE FROM book WHERE owner_id IN (:userIds)", params);
+        jdbcTemplate.update("DELETE FROM _user WHERE id IN (:userIds)", params);
+        userIds.clear();
+    }
+
+    private User newUser() {
+        User user = userRepository.save(User.builder()
+                .firstName("Benchmark")
+                .lastName("Reader")
+                .email("stress-" + UUID.randomUUID() + "@test.local")
+                .password("not-a-password")
+                .accountLocked(false)
+                .enabled(true)
+                .roles(List.of())
+                .build());
+        userIds.add(user.getId());
+        return user;
+    }
+}
@@ -0,0 +1,51 @@
+package com.majdi.book_network.common;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+//? Minimal timer for the stress tagged benchmarks: warm up, time every call, print the latency percentiles
+public final class Benchmark {
+
+    private Benchmark() {
+    }
+
+    //! the action receives the iteration number, so that it can vary its input (page, cursor...)
+    public static Result run(String name, int warmups, int iterations, IntConsumer action) {
+        for (int i = 0; i < warmups; i++) {
+            action.accept(i);
+        }
+        long[] nanos = new long[iterations];
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long callStart = System.nanoTime();
+            action.accept(i);
+            nanos[i] = System.nanoTime() - callStart;
+        }
+        long total = System.nanoTime() - start;
+        Arrays.sort(nanos);
+        var result = new Result(
+                name,
+                total / 1_000_000.0 / iterations,
+                percentile(nanos, 0.50),
+                percentile(nanos, 0.95),
+                percentile(nanos, 0.99),
+                iterations / (total / 1_000_000_000.0)
+        );
+        System.out.println(result);
+        return result;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    public record Result(String name, double meanMs, double p50Ms, double p95Ms, double p99Ms, double opsPerSecond) {
+
+        @Override
+        public String toString() {
+            return String.format("%-40s mean %8.3f ms  p50 %8.3f ms  p95 %8.3f ms  p99 %8.3f ms  %10.1f ops/s",
+                    name, meanMs, p50Ms, p95Ms, p99Ms, opsPerSecond);
+        }
+    }
+}
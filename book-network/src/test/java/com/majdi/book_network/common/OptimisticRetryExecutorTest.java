@@ -0,0 +1,75 @@
+package com.majdi.book_network.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticRetryExecutorTest {
+
+    private final OptimisticRetryExecutor executor = new OptimisticRetryExecutor(3, 0, 0);
+
+    @Test
+    void returnsFirstResultWithoutRetrying() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Integer result = executor.execute(() -> attempts.incrementAndGet() * 10);
+
+        assertThat(result).isEqualTo(10);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void retriesConcurrencyFailuresUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Integer result = executor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Book", 1);
+            }
+            return 42;
+        });
+
+        assertThat(result).isEqualTo(42);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void rethrowsAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+        ConcurrencyFailureException failure = new ConcurrencyFailureException("lost the race");
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            throw failure;
+        })).isSameAs(failure);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void neverRetriesOtherExceptions() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new DataIntegrityViolationException("duplicate key");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void neverRetriesBusinessRefusals() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("already borrowed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(attempts).hasValue(1);
+    }
+}
@@ -0,0 +1,116 @@
+package com.majdi.book_network.feed;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongRingBufferTest {
+
+    @Test
+    void cannotAnswerBeforeBeingLoaded() {
+        LongRingBuffer buffer = new LongRingBuffer(4);
+        buffer.add(1);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 1)).isNull();
+    }
+
+    @Test
+    void keepsIdsNewestFirst() {
+        LongRingBuffer buffer = loaded(8, true);
+        buffer.add(10);
+        buffer.add(30);
+        buffer.add(20);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 8)).containsExactly(30, 20, 10);
+    }
+
+    @Test
+    void ignoresDuplicates() {
+        LongRingBuffer buffer = loaded(8, true);
+        buffer.add(5);
+        buffer.add(7);
+        buffer.add(5);
+        buffer.add(7);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 8)).containsExactly(7, 5);
+    }
+
+    @Test
+    void dropsTheOldestIdWhenFull() {
+        LongRingBuffer buffer = loaded(3, true);
+        for (long id = 1; id <= 5; id++) {
+            buffer.add(id);
+        }
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 3)).containsExactly(5, 4, 3);
+        //! dropping ids means the buffer no longer holds the whole timeline
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 4)).isNull();
+    }
+
+    @Test
+    void insertsAnOutOfOrderIdIntoAWrappedBuffer() {
+        LongRingBuffer buffer = loaded(3, true);
+        for (long id = 10; id <= 50; id += 10) {
+            buffer.add(id);                             //* head wrapped around the array twice
+        }
+        buffer.add(45);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 3)).containsExactly(50, 45, 40);
+    }
+
+    @Test
+    void ignoresAnIdOlderThanEverythingInAFullBuffer() {
+        LongRingBuffer buffer = loaded(3, true);
+        buffer.add(10);
+        buffer.add(20);
+        buffer.add(30);
+        buffer.add(5);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 3)).containsExactly(30, 20, 10);
+    }
+
+    @Test
+    void keepsPushesReceivedWhileLoading() {
+        LongRingBuffer buffer = new LongRingBuffer(8);
+        buffer.add(60);
+        buffer.load(new long[]{50, 40}, true);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 8)).containsExactly(60, 50, 40);
+    }
+
+    @Test
+    void partialBufferOnlyAnswersFullPages() {
+        LongRingBuffer buffer = new LongRingBuffer(8);
+        buffer.load(new long[]{50, 40, 30}, false);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 2)).containsExactly(50, 40);
+        assertThat(buffer.readBefore(45, 2)).containsExactly(40, 30);
+        //! older ids may exist in the database only
+        assertThat(buffer.readBefore(40, 2)).isNull();
+        assertThat(buffer.readBefore(30, 1)).isNull();
+    }
+
+    @Test
+    void completeBufferAnswersShortAndEmptyPages() {
+        LongRingBuffer buffer = new LongRingBuffer(8);
+        buffer.load(new long[]{50, 40, 30}, true);
+
+        assertThat(buffer.readBefore(40, 5)).containsExactly(30);
+        assertThat(buffer.readBefore(30, 5)).isEmpty();
+    }
+
+    @Test
+    void aTimelineFillingTheWholeBufferIsNotComplete() {
+        LongRingBuffer buffer = new LongRingBuffer(2);
+        buffer.load(new long[]{3, 2}, true);
+
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 2)).containsExactly(3, 2);
+        assertThat(buffer.readBefore(Long.MAX_VALUE, 3)).isNull();
+    }
+
+    private static LongRingBuffer loaded(int capacity, boolean wholeTimeline) {
+        LongRingBuffer buffer = new LongRingBuffer(capacity);
+        buffer.load(new long[0], wholeTimeline);
+        return buffer;
+    }
+}
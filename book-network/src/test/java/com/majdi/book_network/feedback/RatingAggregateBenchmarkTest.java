@@ -0,0 +1,144 @@
+package com.majdi.book_network.feedback;
+
+import com.majdi.book_network.book.BookRepository;
+import com.majdi.book_network.common.Benchmark;
+import com.majdi.book_network.user.User;
+import com.majdi.book_network.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? Catalog page latency: precomputed book_rating join against AVG() over the feedback rows. Run with mvn test -Pstress
+//! -Dstress.feedback.rows and -Dstress.feedback.books change the scale (10M feedback rows on 100k books by default)
+@Tag("stress")
+@SpringBootTest
+class RatingAggregateBenchmarkTest {
+
+    private static final long FEEDBACK_ROWS = Long.getLong("stress.feedback.rows", 10_000_000L);
+    private static final int BOOKS = Integer.getInteger("stress.feedback.books", 100_000);
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUPS = 50;
+    private static final int ITERATIONS = 500;
+
+    //! what the catalog would run without the aggregates: the same page, rated on the fly
+    private static final String ON_THE_FLY_PAGE = """
+            SELECT book.id, book.title, book.author_name, book.isbn,
+                   CONCAT(owner.first_name, ' ', owner.last_name), book.book_cover,
+                   book.archived, book.shareable, book.borrowed,
+                   AVG(f.note), COUNT(f.id)
+            FROM book
+            JOIN _user owner ON owner.id = book.owner_id
+            LEFT JOIN feedback f ON f.book_id = book.id
+            WHERE book.archived = false
+            AND book.shareable = true
+            AND owner.id <> :userId
+            AND book.id < :cursor
+            GROUP BY book.id, owner.id
+            ORDER BY book.id DESC
+            LIMIT :size
+            """;
+
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final List<Integer> userIds = new ArrayList<>();
+
+    @Test
+    void precomputedAggregatesAgainstAvgOnTheFly() {
+        User owner = newUser();
+        User reader = newUser();
+        seed(owner.getId(), reader.getId());
+        List<Integer> bookIds = jdbcTemplate.queryForList(
+                "SELECT id FROM book WHERE owner_id = :ownerId ORDER BY id", Map.of("ownerId", owner.getId()), Integer.class
+        );
+        //! the same random cursors for both queries, anywhere in the seeded books
+        Random random = new Random(42);
+        int[] cursors = new int[WARMUPS + ITERATIONS];
+        for (int i = 0; i < cursors.length; i++) {
+            cursors[i] = bookIds.get(PAGE_SIZE + random.nextInt(bookIds.size() - PAGE_SIZE));
+        }
+
+        assertThat(bookRepository.findDisplayableBooks(reader.getId(), cursors[0], PageRequest.ofSize(PAGE_SIZE)))
+                .hasSize(PAGE_SIZE);
+        System.out.printf("rating aggregates: %,d feedback rows on %,d books, pages of %d%n", FEEDBACK_ROWS, BOOKS, PAGE_SIZE);
+        var aggregates = Benchmark.run("catalog page, book_rating join", WARMUPS, ITERATIONS,
+                i -> bookRepository.findDisplayableBooks(reader.getId(), cursors[i], PageRequest.ofSize(PAGE_SIZE)));
+        var onTheFly = Benchmark.run("catalog page, AVG() on the fly", WARMUPS, ITERATIONS,
+                i -> jdbcTemplate.queryForList(ON_THE_FLY_PAGE, Map.of("userId", reader.getId(), "cursor", cursors[i], "size", PAGE_SIZE)));
+        System.out.printf("on the fly / aggregates: %.1fx at p50, %.1fx at p95%n",
+                onTheFly.p50Ms() / aggregates.p50Ms(), onTheFly.p95Ms() / aggregates.p95Ms());
+    }
+
+    //! generated by PostgreSQL itself, the ids come from the Hibernate sequences so that the application can keep inserting
+    private void seed(Integer ownerId, Integer authorId) {
+        var params = Map.of("ownerId", ownerId, "authorId", authorId, "books", BOOKS, "rows", FEEDBACK_ROWS);
+        jdbcTemplate.update("""
+                INSERT INTO book (id, title, author_name, isbn, archived, shareable, borrowed, version, owner_id, created_date)
+                SELECT nextval('book_seq'), 'Benchmark book ' || g, 'Benchmark', lpad(g::text, 13, '0'), false, true, false, 0, :ownerId, now()
+                FROM generate_series(1, :books) g
+                """, params);
+        jdbcTemplate.update("""
+                WITH books AS (SELECT array_agg(id) AS ids FROM book WHERE owner_id = :ownerId)
+                INSERT INTO feedback (id, note, book_id, author_id, created_date)
+                SELECT nextval('feedback_seq'), 1 + floor(random() * 5)::int, books.ids[(1 + g % cardinality(books.ids))::int], :authorId, now()
+                FROM books, generate_series(1, :rows) g
+                """, params);
+        jdbcTemplate.update("""
+                INSERT INTO book_rating (book_id, rating_sum, rating_count, one_star, two_stars, three_stars, four_stars, five_stars)
+                SELECT f.book_id, SUM(f.note), COUNT(*),
+                       COUNT(*) FILTER (WHERE f.note = 1),
+                       COUNT(*) FILTER (WHERE f.note = 2),
+                       COUNT(*) FILTER (WHERE f.note = 3),
+                       COUNT(*) FILTER (WHERE f.note = 4),
+                       COUNT(*) FILTER (WHERE f.note = 5)
+                FROM feedback f
+                WHERE f.author_id = :authorId
+                GROUP BY f.book_id
+                """, params);
+        jdbcTemplate.getJdbcTemplate().execute("ANALYZE book, feedback, book_rating");
+    }
+
+    //! the compose database is shared with the application, remove everything this test created
+    @AfterEach
+    void cleanUp() {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        var params = Map.of("userIds", userIds);
+        jdbcTemplate.update("DELETE FROM book_rating WHERE book_id IN (SELECT id FROM book WHERE owner_id IN (:userIds))", params);
+        jdbcTemplate.update("DELETE FROM feedback WHERE author_id IN (:userIds)", params);
+        jdbcTemplate.update("DELETE FROM book WHERE owner_id IN (:userIds)", params);
+        jdbcTemplate.update("DELETE FROM _user WHERE id IN (:userIds)", params);
+        userIds.clear();
+    }
+
+    private User newUser() {
+        User user = userRepository.save(User.builder()
+                .firstName("Benchmark")
+                .lastName("Reader")
+                .email("stress-" + UUID.randomUUID() + "@test.local")
+                .password("not-a-password")
+                .accountLocked(false)
+                .enabled(true)
+                .roles(List.of())
+                .build());
+        userIds.add(user.getId());
+        return user;
+    }
+}
@@ -0,0 +1,125 @@
+package com.majdi.book_network.notification;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationHubTest {
+
+    private static final int BUFFER_SIZE = 2;
+    private static final long MAX_PUBLISH_MS = 500;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    //! heartbeats are triggered by the tests, the scheduled ones never fire
+    private final NotificationHub hub = new NotificationHub(meterRegistry, 60_000, 3_600_000, BUFFER_SIZE);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdown() {
+        unblock.countDown();
+        hub.shutdown();
+    }
+
+    @Test
+    @Timeout(5)
+    void evictingAStalledStreamDoesNotBlockSend() throws Exception {
+        var stalled = new StalledEmitter();
+        hub.register(1, stalled);
+        stallWriter(1, stalled);
+
+        long start = System.nanoTime();
+        for (int i = 0; i <= BUFFER_SIZE; i++) {
+            hub.send(1, notification());                //* the last one overflows the buffer
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(MAX_PUBLISH_MS);
+
+        assertThat(stalled.completing.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.completingThread).isNotSameAs(Thread.currentThread());
+        assertThat(meterRegistry.counter("notifications.sse.connections.evicted").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("notifications.sse.events.dropped").count()).isEqualTo(BUFFER_SIZE + 1.0);
+        assertThat(meterRegistry.get("notifications.sse.connections").gauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    @Timeout(5)
+    void evictingAStalledStreamDoesNotBlockHeartbeats() throws Exception {
+        var stalled = new StalledEmitter();
+        var healthy = new RecordingEmitter(2);
+        hub.register(1, stalled);
+        hub.register(2, healthy);
+        stallWriter(1, stalled);
+        for (int i = 0; i < BUFFER_SIZE; i++) {
+            hub.send(1, notification());
+        }
+
+        long start = System.nanoTime();
+        hub.sendHeartbeat();                            //* overflows the stalled stream
+        hub.sendHeartbeat();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(MAX_PUBLISH_MS);
+
+        assertThat(stalled.completing.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(stalled.completingThread).isNotSameAs(Thread.currentThread());
+        assertThat(healthy.received.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("notifications.sse.connections").gauge().value()).isEqualTo(1.0);
+    }
+
+    //! the writer thread takes the first event and then hangs inside send(), like on a stalled socket
+    private void stallWriter(Integer userId, StalledEmitter emitter) throws InterruptedException {
+        hub.send(userId, notification());
+        assertThat(emitter.writing.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static Notification notification() {
+        return Notification.builder().message("Your book was returned").build();
+    }
+
+    //? send() and complete() share the emitter's write lock: both hang until the test ends
+    private class StalledEmitter extends SseEmitter {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch completing = new CountDownLatch(1);
+        private volatile Thread completingThread;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            writing.countDown();
+            awaitUnblock();
+        }
+
+        @Override
+        public void complete() {
+            completingThread = Thread.currentThread();
+            completing.countDown();
+            awaitUnblock();
+        }
+
+        private void awaitUnblock() {
+            try {
+                unblock.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch received;
+
+        RecordingEmitter(int expectedEvents) {
+            this.received = new CountDownLatch(expectedEvents);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            received.countDown();
+        }
+    }
+}
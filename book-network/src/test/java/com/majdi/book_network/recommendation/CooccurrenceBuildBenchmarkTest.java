@@ -0,0 +1,94 @@
+package com.majdi.book_network.recommendation;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? Build time and memory of the co-occurrence matrix per million borrow events, on synthetic history. Run with mvn test -Pstress
+//! -Dstress.recommendation.events (comma separated) and -Dstress.recommendation.books change the scale
+@Tag("stress")
+class CooccurrenceBuildBenchmarkTest {
+
+    private static final String EVENTS = System.getProperty("stress.recommendation.events", "1000000,5000000");
+    private static final int BOOKS = Integer.getInteger("stress.recommendation.books", 100_000);
+    private static final int AVERAGE_BASKET_SIZE = 10;
+
+    @Test
+    void buildTimeAndMemoryPerMillionBorrowEvents() {
+        //! warm-up: JIT the counting code before the timed builds
+        CooccurrenceMatrix.build(generateBaskets(200_000, new Random(1)), ForkJoinPool.commonPool());
+
+        for (String value : EVENTS.split(",")) {
+            long events = Long.parseLong(value.trim());
+            List<int[]> baskets = generateBaskets(events, new Random(42));
+            long pairs = baskets.stream().mapToLong(basket -> (long) basket.length * (basket.length - 1) / 2).sum();
+            double millions = events / 1_000_000.0;
+
+            long heapBefore = usedHeap();
+            long start = System.nanoTime();
+            CooccurrenceMatrix matrix = CooccurrenceMatrix.build(baskets, ForkJoinPool.commonPool());
+            long parallelMs = (System.nanoTime() - start) / 1_000_000;
+            long retainedBytes = usedHeap() - heapBefore;
+            long arrayBytes = matrix.sizeInBytes();
+            long counters = matrix.entryCount();
+            Reference.reachabilityFence(matrix);
+            matrix = null;
+
+            long singleThreadMs;
+            ForkJoinPool singleThread = new ForkJoinPool(1);
+            try {
+                start = System.nanoTime();
+                CooccurrenceMatrix.build(baskets, singleThread);
+                singleThreadMs = (System.nanoTime() - start) / 1_000_000;
+            } finally {
+                singleThread.shutdown();
+            }
+
+            System.out.printf(
+                    "co-occurrence build: %,d borrow events, %,d readers, %,d pair increments, %,d counters%n"
+                            + "  fork/join (%d threads) %,d ms = %,.0f ms per million events, single thread %,d ms%n"
+                            + "  arrays %,d KB = %,.0f KB per million events, retained heap %,d KB = %,.0f KB per million events%n",
+                    events, baskets.size(), pairs, counters,
+                    ForkJoinPool.commonPool().getParallelism(), parallelMs, parallelMs / millions, singleThreadMs,
+                    arrayBytes / 1024, arrayBytes / 1024 / millions, retainedBytes / 1024, retainedBytes / 1024 / millions
+            );
+            assertThat(counters).isGreaterThan(0L);
+        }
+    }
+
+    //! readers with geometric basket sizes borrowing from a skewed catalog: a few very popular books, a long tail
+    private static List<int[]> generateBaskets(long events, Random random) {
+        List<int[]> baskets = new ArrayList<>();
+        long generated = 0;
+        while (generated < events) {
+            int size = (int) Math.min(events - generated,
+                    1 + (long) (-Math.log(1 - random.nextDouble()) * (AVERAGE_BASKET_SIZE - 1)));
+            int[] books = new int[size];
+            for (int i = 0; i < size; i++) {
+                books[i] = 1 + (int) (BOOKS * Math.pow(random.nextDouble(), 3));
+            }
+            generated += size;
+            int[] distinct = Arrays.stream(books).sorted().distinct().toArray();
+            if (distinct.length > 1) {
+                baskets.add(distinct);                  //* like the rebuild, single book readers pair nothing
+            }
+        }
+        return baskets;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
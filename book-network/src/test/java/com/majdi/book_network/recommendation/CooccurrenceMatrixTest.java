@@ -0,0 +1,94 @@
+package com.majdi.book_network.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CooccurrenceMatrixTest {
+
+    @Test
+    void unknownBookOrEmptyRequestHasNoRecommendation() {
+        CooccurrenceMatrix matrix = new CooccurrenceMatrix();
+        matrix.addBasket(new int[]{1, 2});
+
+        assertThat(matrix.topN(3, 5)).isEmpty();
+        assertThat(matrix.topN(1, 0)).isEmpty();
+    }
+
+    @Test
+    void countsEveryPairOfABasketInBothRows() {
+        CooccurrenceMatrix matrix = new CooccurrenceMatrix();
+        matrix.addBasket(new int[]{1, 2, 3});
+        matrix.addBasket(new int[]{1, 2});
+
+        assertThat(matrix.topN(1, 5)).containsExactly(2, 3);
+        assertThat(matrix.topN(2, 5)).containsExactly(1, 3);
+        assertThat(matrix.topN(3, 5)).containsExactly(1, 2);
+        assertThat(matrix.entryCount()).isEqualTo(6L);
+    }
+
+    @Test
+    void ordersByCountThenSmallestIdAndTruncates() {
+        CooccurrenceMatrix matrix = new CooccurrenceMatrix();
+        matrix.increment(1, 9, 1);
+        matrix.increment(1, 4, 3);
+        matrix.increment(1, 7, 1);
+        matrix.increment(1, 2, 3);
+        matrix.increment(1, 5, 2);
+
+        assertThat(matrix.topN(1, 10)).containsExactly(2, 4, 5, 7, 9);
+        assertThat(matrix.topN(1, 3)).containsExactly(2, 4, 5);
+        assertThat(matrix.topN(1, 1)).containsExactly(2);
+    }
+
+    @Test
+    void addToBasketPairsTheNewBookWithThePreviousOnesOnly() {
+        CooccurrenceMatrix matrix = new CooccurrenceMatrix();
+        matrix.addToBasket(3, new int[]{1, 2, 3});
+
+        assertThat(matrix.topN(3, 5)).containsExactly(1, 2);
+        assertThat(matrix.topN(1, 5)).containsExactly(3);
+        assertThat(matrix.topN(1, 5)).doesNotContain(1);
+    }
+
+    @Test
+    void mergeAddsTheCountsOfBothMatrices() {
+        CooccurrenceMatrix left = new CooccurrenceMatrix();
+        left.addBasket(new int[]{1, 2});
+        left.addBasket(new int[]{1, 3});
+        CooccurrenceMatrix right = new CooccurrenceMatrix();
+        right.addBasket(new int[]{1, 3});
+        right.addBasket(new int[]{1, 3, 4});
+
+        left.merge(right);
+
+        assertThat(left.topN(1, 5)).containsExactly(3, 2, 4);
+        assertThat(left.topN(4, 5)).containsExactly(1, 3);
+    }
+
+    @Test
+    void topNMatchesAFullSortForEveryN() {
+        CooccurrenceMatrix matrix = new CooccurrenceMatrix();
+        Random random = new Random(7);
+        int[] counts = new int[301];
+        for (int otherBookId = 2; otherBookId <= 300; otherBookId++) {
+            counts[otherBookId] = random.nextInt(20) + 1;                   //* many ties on purpose
+            matrix.increment(1, otherBookId, counts[otherBookId]);
+        }
+        int[] expected = IntStream.rangeClosed(2, 300)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingInt(id -> -counts[id]).thenComparingInt(id -> id))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        for (int n = 1; n <= 310; n++) {
+            int[] top = matrix.topN(1, n);
+            assertThat(top).containsExactly(Arrays.copyOf(expected, Math.min(n, expected.length)));
+        }
+    }
+}
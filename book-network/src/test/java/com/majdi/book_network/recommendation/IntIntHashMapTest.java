@@ -0,0 +1,93 @@
+package com.majdi.book_network.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IntIntHashMapTest {
+
+    @Test
+    void absentKeysReadAsZero() {
+        IntIntHashMap map = new IntIntHashMap(4);
+
+        assertThat(map.get(42)).isEqualTo(0);
+        assertThat(map.get(0)).isEqualTo(0);
+        assertThat(map.size()).isEqualTo(0);
+    }
+
+    @Test
+    void putOverwritesAndAddToAccumulates() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        map.put(7, 3);
+        map.put(7, 5);
+
+        assertThat(map.addTo(7, 2)).isEqualTo(7);
+        assertThat(map.addTo(9, 4)).isEqualTo(4);
+        assertThat(map.get(7)).isEqualTo(7);
+        assertThat(map.get(9)).isEqualTo(4);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void zeroIsReservedAsTheEmptyMarker() {
+        IntIntHashMap map = new IntIntHashMap(4);
+
+        assertThatThrownBy(() -> map.put(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> map.addTo(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(map.size()).isEqualTo(0);
+    }
+
+    @Test
+    void growsAndKeepsEveryEntry() {
+        IntIntHashMap map = new IntIntHashMap(0);
+        long initialBytes = map.sizeInBytes();
+        for (int key = 1; key <= 10_000; key++) {
+            map.put(key, key * 3);
+        }
+
+        assertThat(map.size()).isEqualTo(10_000);
+        assertThat(map.sizeInBytes()).isGreaterThan(initialBytes);
+        for (int key = 1; key <= 10_000; key++) {
+            assertThat(map.get(key)).isEqualTo(key * 3);
+        }
+        assertThat(map.get(10_001)).isEqualTo(0);
+    }
+
+    @Test
+    void probingHandlesCollidingAndNegativeKeys() {
+        IntIntHashMap map = new IntIntHashMap(8);
+        Map<Integer, Integer> expected = new HashMap<>();
+        //! multiples of a power of two share their low bits, negative keys exercise the sign of the hash
+        for (int i = 1; i <= 500; i++) {
+            int key = (i % 2 == 0 ? -i : i) << 12;
+            expected.merge(key, i, Integer::sum);
+            map.addTo(key, i);
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+    }
+
+    @Test
+    void matchesAHashMapUnderRandomUpdates() {
+        IntIntHashMap map = new IntIntHashMap(2);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(5_000) + 1;
+            int delta = random.nextInt(10);
+            expected.merge(key, delta, Integer::sum);
+            assertThat(map.addTo(key, delta)).isEqualTo(expected.get(key));
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach((key, value) -> assertThat(visited.put(key, value)).isNull());
+        assertThat(visited).isEqualTo(expected);
+        assertThat(map.size()).isEqualTo(expected.size());
+    }
+}
@@ -0,0 +1,139 @@
+package com.majdi.book_network.security;
+
+import com.majdi.book_network.common.Benchmark;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+//? Tokens per second of the former JWT format against the key ring, and token length with and without compact-claims.
+//! no Spring context nor database, run with mvn test -Pstress. -Dstress.jwt.iterations changes the calls per case
+@Tag("stress")
+class JwtThroughputBenchmarkTest {
+
+    //! 256 bits: the former signWith(key) picks the algorithm from the key size, HS256 like the key ring
+    private static final String SECRET = "akLZMalUCBzKtpQAJuJf8e08ikwYdAiJmWbYowNdLB0=";
+    private static final String FULL_NAME = "Benchmark Reader";
+    private static final long EXPIRATION = 86_400_000;
+    private static final int ITERATIONS = Integer.getInteger("stress.jwt.iterations", 20_000);
+    private static final int WARMUPS = ITERATIONS / 4;
+
+    private final UserDetails user = User.withUsername("stress-reader@test.local")
+            .password("not-a-password")
+            .authorities("USER")
+            .build();
+
+    @Test
+    void legacyFormatAgainstKeyRing() throws Exception {
+        var hmac = key("hs-1", "HS256");
+        hmac.setSecret(SECRET);
+        KeyPair pair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        var eddsa = key("ed-1", "EdDSA");
+        eddsa.setPrivateKey(Base64.getEncoder().encodeToString(pair.getPrivate().getEncoded()));
+        eddsa.setPublicKey(Base64.getEncoder().encodeToString(pair.getPublic().getEncoded()));
+
+        String legacyToken = legacySign();
+        assertThat(legacyIsTokenValid(legacyToken)).isTrue();
+        System.out.printf("JWT, %d iterations per case%n", ITERATIONS);
+        var legacySign = Benchmark.run("legacy HS256 sign", WARMUPS, ITERATIONS, i -> legacySign());
+        var legacyVerify = Benchmark.run("legacy HS256 verify", WARMUPS, ITERATIONS, i -> legacyIsTokenValid(legacyToken));
+
+        Map<String, Integer> lengths = new LinkedHashMap<>();
+        lengths.put("legacy HS256", legacyToken.length());
+        for (var key : List.of(hmac, eddsa)) {
+            for (boolean compactClaims : new boolean[]{false, true}) {
+                JwtService jwtService = jwtService(key, compactClaims, hmac, eddsa);
+                String name = key.getAlgorithm() + (compactClaims ? " compact" : " full");
+                String token = jwtService.generateToken(claims(jwtService), user);
+                assertThat(jwtService.isTokenValid(token, user)).isTrue();
+                lengths.put(name, token.length());
+                var sign = Benchmark.run("key ring " + name + " sign", WARMUPS, ITERATIONS,
+                        i -> jwtService.generateToken(claims(jwtService), user));
+                var verify = Benchmark.run("key ring " + name + " verify", WARMUPS, ITERATIONS,
+                        i -> jwtService.isTokenValid(token, user));
+                System.out.printf("%s / legacy: %.2fx tokens/s signed, %.2fx tokens/s verified%n",
+                        name, sign.opsPerSecond() / legacySign.opsPerSecond(), verify.opsPerSecond() / legacyVerify.opsPerSecond());
+            }
+        }
+        lengths.forEach((name, length) -> System.out.printf("%-20s %4d chars%n", name, length));
+        assertThat(lengths.get("HS256 compact")).isLessThan(lengths.get("HS256 full"));
+    }
+
+    //! what AuthenticationService puts in the token: the display name only outside the compact profile
+    private static Map<String, Object> claims(JwtService jwtService) {
+        var claims = new HashMap<String, Object>();
+        if (!jwtService.isCompactClaims()) {
+            claims.put("fullName", FULL_NAME);
+        }
+        return claims;
+    }
+
+    private static JwtService jwtService(JwtProperties.Key active, boolean compactClaims, JwtProperties.Key... keys) {
+        var properties = new JwtProperties();
+        properties.setExpiration(EXPIRATION);
+        properties.setCompactClaims(compactClaims);
+        properties.setActiveKeyId(active.getId());
+        properties.setKeys(List.of(keys));
+        return new JwtService(new JwtKeyRing(properties), properties);
+    }
+
+    private static JwtProperties.Key key(String id, String algorithm) {
+        var key = new JwtProperties.Key();
+        key.setId(id);
+        key.setAlgorithm(algorithm);
+        return key;
+    }
+
+    //! the former JwtService: key decoded on every call, full authorities and fullName, no kid header
+    private String legacySign() {
+        var authorities = user.getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return Jwts
+                .builder()
+                .claims(Map.of("fullName", FULL_NAME))
+                .subject(user.getUsername())
+                .issuedAt(new Date(System.currentTimeMillis()))
+                .expiration(new Date(System.currentTimeMillis() + EXPIRATION))
+                .claim("authorities", authorities)
+                .signWith(legacyKey())
+                .compact();
+    }
+
+    //! the former validation: a new parser and a full parse for the subject, then again for the expiration
+    private boolean legacyIsTokenValid(String token) {
+        String username = legacyParse(token).getSubject();
+        return username.equals(user.getUsername()) && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts
+                .parser()
+                .verifyWith(legacyKey())
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static SecretKey legacyKey() {
+        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+    }
+}